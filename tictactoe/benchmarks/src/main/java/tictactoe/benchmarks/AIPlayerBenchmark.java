@@ -0,0 +1,59 @@
+package tictactoe.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tictactoe.AIPlayer;
+import tictactoe.Board;
+import tictactoe.TranspositionTable;
+
+/**
+ * Full fixed-depth searches. Every getBestMove call starts from an empty
+ * transposition table so iterations measure the same work.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class AIPlayerBenchmark {
+    @Param({"opening", "midgame", "endgame"})
+    public String position;
+
+    @Param({"6"})
+    public int depth;
+
+    private Board board;
+    private AIPlayer player;
+
+    @Setup
+    public void setUp() {
+        board = BenchmarkPositions.board(position);
+        player = new AIPlayer(BenchmarkPositions.sideToMove(position),
+                new TranspositionTable(1 << 16, TranspositionTable.ReplacementPolicy.DEPTH_PREFERRED));
+        player.setTimeBudget(0);
+        player.setMaxDepth(depth);
+        player.setOpeningBook(null);
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        player.newGame();
+    }
+
+    @Benchmark
+    public int getBestMove() {
+        return player.getBestMove(board);
+    }
+}
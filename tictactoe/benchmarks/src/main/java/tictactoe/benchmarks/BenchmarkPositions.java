@@ -0,0 +1,37 @@
+package tictactoe.benchmarks;
+
+import tictactoe.Board;
+import tictactoe.Seed;
+
+/** Fixed positions shared by all benchmarks, as column sequences from an empty board. */
+final class BenchmarkPositions {
+    static final String OPENING = "3323";
+    static final String MIDGAME = "5564015316404553";
+    static final String ENDGAME = "01655460401206202551120656622141";
+
+    private BenchmarkPositions() {
+    }
+
+    static String moves(String name) {
+        return switch (name) {
+            case "opening" -> OPENING;
+            case "midgame" -> MIDGAME;
+            case "endgame" -> ENDGAME;
+            default -> throw new IllegalArgumentException("Unknown position: " + name);
+        };
+    }
+
+    static Board board(String name) {
+        Board board = new Board();
+        Seed player = Seed.CROSS;
+        for (char c : moves(name).toCharArray()) {
+            board.makeMove(player, c - '0');
+            player = (player == Seed.CROSS) ? Seed.NOUGHT : Seed.CROSS;
+        }
+        return board;
+    }
+
+    static Seed sideToMove(String name) {
+        return moves(name).length() % 2 == 0 ? Seed.CROSS : Seed.NOUGHT;
+    }
+}
@@ -0,0 +1,70 @@
+package tictactoe.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import tictactoe.Board;
+import tictactoe.Seed;
+
+/** Hot paths of the Swing {@link Board}. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BoardBenchmark {
+    @Param({"opening", "midgame", "endgame"})
+    public String position;
+
+    private Board board;
+    private Seed toMove;
+    private int column;
+
+    @Setup
+    public void setUp() {
+        board = BenchmarkPositions.board(position);
+        toMove = BenchmarkPositions.sideToMove(position);
+        for (int col = 0; col < Board.COLS; col++) {
+            if (board.getLowestEmptyRow(col) != -1) {
+                column = col;
+                break;
+            }
+        }
+    }
+
+    /** One makeMove followed by the undoMove that keeps the board unchanged. */
+    @Benchmark
+    public tictactoe.State makeMove() {
+        tictactoe.State state = board.makeMove(toMove, column);
+        board.undoMove();
+        return state;
+    }
+
+    @Benchmark
+    public tictactoe.State checkWin() {
+        return board.checkWin();
+    }
+
+    @Benchmark
+    public void getLowestEmptyRow(Blackhole blackhole) {
+        for (int col = 0; col < Board.COLS; col++) {
+            blackhole.consume(board.getLowestEmptyRow(col));
+        }
+    }
+
+    @Benchmark
+    public Board cloneBoard() {
+        return board.clone();
+    }
+}
@@ -0,0 +1,54 @@
+package tictactoe.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tictactoe.AIPlayer;
+import tictactoe.Position;
+
+/** Leaf evaluation as seen by the search, plus one make/undo on the bitboard. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EvaluationBenchmark {
+    @Param({"opening", "midgame", "endgame"})
+    public String position;
+
+    private Position searchPosition;
+    private AIPlayer player;
+    private int column;
+
+    @Setup
+    public void setUp() {
+        searchPosition = Position.fromBoard(BenchmarkPositions.board(position));
+        player = new AIPlayer(BenchmarkPositions.sideToMove(position));
+        while (!searchPosition.canPlay(column)) {
+            column++;
+        }
+    }
+
+    @Benchmark
+    public int evaluateBoard() {
+        return player.evaluateBoard(searchPosition);
+    }
+
+    @Benchmark
+    public int makeUndoAndEvaluate() {
+        searchPosition.makeMove(BenchmarkPositions.sideToMove(position), column);
+        int score = player.evaluateBoard(searchPosition);
+        searchPosition.undoMove(column);
+        return score;
+    }
+}
@@ -1,108 +1,851 @@
 package tictactoe;
 
-public class AIPlayer {
-    private static final int MAX_DEPTH = 6;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** Alpha-beta minimax {@link Engine} with iterative deepening, a transposition table and pondering. */
+public class AIPlayer implements Engine {
+    public static final long DEFAULT_TIME_BUDGET_MILLIS = 1000;
+    private static final int CHECK_INTERVAL = 1023;
+    static final int WIN_SCORE = 1000;
+    /** Empty cells at which solver mode starts trying the solver; 34 is move 8 on the standard board. */
+    public static final int DEFAULT_SOLVER_MAX_EMPTY_CELLS = 34;
+
     private final Seed aiSeed;
+    private final Seed oppSeed;
+    private final Geometry geometry;
+    private final int cols;
+    private final int[] centerOrder;
+    private final TranspositionTable transpositionTable;
+    private long timeBudgetMillis = DEFAULT_TIME_BUDGET_MILLIS;
+    private long nodeBudget;
+    private int maxDepth;
+    private int threads = 1;
+    private ForkJoinPool pool;
+    private OpeningBook openingBook;
+    private boolean openingBookResolved;
+    // cancel() bumps the generation; a search stops once it differs from the token it was given.
+    private final AtomicInteger cancelGeneration = new AtomicInteger();
+    private boolean solverMode;
+    private int solverTableSize = Solver.DEFAULT_TABLE_SIZE;
+    private int solverMaxEmptyCells = DEFAULT_SOLVER_MAX_EMPTY_CELLS;
+    private Solver solver; // created on the first solve attempt
+
+    // Pondering: speculative searches of the human's replies on a background thread.
+    private ExecutorService ponderExecutor;
+    private Future<?> ponderTask;
+    private volatile boolean ponderStopRequested;
+    private final long[] ponderKeys;
+    private final boolean[] ponderValid; // keys can be 0 (the empty board's hash), so 0 cannot mark an empty slot
+    private final int[] ponderMoves;
+    private final int[] ponderDepths;
+    private final int[] ponderScores;
+
+    // State of the search in progress, shared by all searcher threads.
+    private volatile boolean aborted;
+    private int searchToken;
+    private boolean ponderSearch; // only pondering stops for stopPondering()
+    private final AtomicLong sharedNodes = new AtomicLong();
+    private long deadline;
+    private int lastDepth;
+    private int lastScore;
+    private int iterationScore;
+    private boolean lastMoveFromBook;
+    private boolean lastMoveSolved;
+    private int lastSolvedScore;
+    private long solverNodes;
+    private volatile SearchStats lastStats = SearchStats.EMPTY;
+
+    // One searcher per root move so root moves can be searched in parallel.
+    private final Searcher[] searchers;
+    private final int[] rootMoves;
+    private final int[] rootScores;
+
+    /** Receives column scores from {@link #analyze} as each one is found. */
+    public interface AnalysisListener {
+        /** Score of {@code col} from the AI's side at {@code depth}; return false to stop the analysis. */
+        boolean columnScored(int col, int score, int depth);
+    }
 
     public AIPlayer(Seed seed) {
+        this(seed, new TranspositionTable());
+    }
+
+    public AIPlayer(Seed seed, TranspositionTable transpositionTable) {
+        this(seed, Geometry.STANDARD, transpositionTable);
+    }
+
+    /** A player for boards of the given {@link Geometry}; every searched position must use it. */
+    public AIPlayer(Seed seed, Geometry geometry, TranspositionTable transpositionTable) {
         this.aiSeed = seed;
+        this.oppSeed = (seed == Seed.CROSS) ? Seed.NOUGHT : Seed.CROSS;
+        this.geometry = geometry;
+        this.cols = geometry.getCols();
+        this.centerOrder = geometry.getCenterOrder();
+        this.transpositionTable = transpositionTable;
+        this.maxDepth = geometry.getSize();
+        this.ponderKeys = new long[cols];
+        this.ponderValid = new boolean[cols];
+        this.ponderMoves = new int[cols];
+        this.ponderDepths = new int[cols];
+        this.ponderScores = new int[cols];
+        this.searchers = new Searcher[cols];
+        this.rootMoves = new int[cols];
+        this.rootScores = new int[cols];
+        for (int i = 0; i < searchers.length; i++) {
+            searchers[i] = new Searcher();
+        }
     }
 
-    public int getBestMove(Board board) {
-        int bestScore = Integer.MIN_VALUE;
-        int bestCol = -1;
+    /** Forgets everything learned during the previous game. */
+    @Override
+    public void newGame() {
+        stopPondering();
+        Arrays.fill(ponderValid, false);
+        transpositionTable.clear();
+    }
 
-        for (int col = 0; col < Board.COLS; col++) {
-            if (board.getLowestEmptyRow(col) != -1) {
-                Board tempBoard = board.clone();
-                tempBoard.makeMove(aiSeed, col);
+    @Override
+    public Seed getSeed() {
+        return aiSeed;
+    }
 
-                int score = minimax(tempBoard, 0, false, Integer.MIN_VALUE, Integer.MAX_VALUE);
-                if (score > bestScore) {
-                    bestScore = score;
-                    bestCol = col;
+    @Override
+    public Geometry getGeometry() {
+        return geometry;
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return transpositionTable;
+    }
+
+    /** Wall-clock limit per move in milliseconds; zero or less means no limit. */
+    @Override
+    public void setTimeBudget(long millis) {
+        this.timeBudgetMillis = millis;
+    }
+
+    /** Node limit per move; zero or less means no limit. */
+    public void setNodeBudget(long nodes) {
+        this.nodeBudget = nodes;
+    }
+
+    /** Deepest iteration to run, counted in plies after the AI's own move. */
+    public void setMaxDepth(int depth) {
+        this.maxDepth = depth;
+    }
+
+    /**
+     * Number of threads used to search the root moves. With more than one,
+     * each root move is searched as its own task on a {@link ForkJoinPool}
+     * and all tasks share the transposition table.
+     */
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1");
+        }
+        if (threads != this.threads && pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+        this.threads = threads;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Book consulted before searching; null turns the book off. Without a
+     * call to this, {@link OpeningBook#getDefault()} is mapped on first use.
+     * Books only cover the standard board, so other geometries never use one.
+     */
+    public void setOpeningBook(OpeningBook openingBook) {
+        this.openingBook = openingBook;
+        this.openingBookResolved = true;
+    }
+
+    private OpeningBook getOpeningBook() {
+        if (!openingBookResolved) {
+            openingBook = OpeningBook.getDefault();
+            openingBookResolved = true;
+        }
+        return geometry == Geometry.STANDARD ? openingBook : null;
+    }
+
+    /**
+     * Solver mode: before the heuristic search, try to solve the position
+     * exactly with {@link Solver}, using at most half of the time and node
+     * budget. A solved move is perfect play; otherwise the heuristic search
+     * gets the rest of the budget. The solver is only tried once at most
+     * {@link #setSolverMaxEmptyCells} cells are empty, so opening moves keep
+     * the whole budget for the heuristic search. Only boards the solver
+     * supports (up to 64 bits, four in a row) are solved; on others this
+     * setting does nothing.
+     */
+    public void setSolverMode(boolean enabled) {
+        this.solverMode = enabled;
+    }
+
+    /**
+     * Entries in the solver's transposition table (16 bytes each), which is
+     * allocated on the first solve attempt. Defaults to
+     * {@link Solver#DEFAULT_TABLE_SIZE}; a table already allocated is replaced.
+     */
+    public void setSolverTableSize(int entries) {
+        this.solverTableSize = entries;
+        this.solver = null;
+    }
+
+    /**
+     * Largest number of empty cells at which solver mode tries the solver,
+     * {@link #DEFAULT_SOLVER_MAX_EMPTY_CELLS} by default. Earlier positions
+     * are rarely solved in time and go straight to the heuristic search.
+     */
+    public void setSolverMaxEmptyCells(int cells) {
+        this.solverMaxEmptyCells = cells;
+    }
+
+    public boolean isSolverMode() {
+        return solverMode;
+    }
+
+    /** Stops a running search; it returns the best move of its last finished iteration. */
+    @Override
+    public void cancel() {
+        cancelGeneration.incrementAndGet();
+    }
+
+    @Override
+    public int getSearchToken() {
+        return cancelGeneration.get();
+    }
+
+    /** Depth of the last iteration that finished in the most recent search. */
+    public int getLastDepth() {
+        return lastDepth;
+    }
+
+    /** Score of the chosen move from the AI's side, as of the last finished iteration. */
+    public int getLastScore() {
+        return lastScore;
+    }
+
+    public boolean isLastMoveFromBook() {
+        return lastMoveFromBook;
+    }
+
+    /** Whether the last move was proven by the solver rather than found by the heuristic search. */
+    public boolean isLastMoveSolved() {
+        return lastMoveSolved;
+    }
+
+    /**
+     * Exact score of the last solved move from the AI's side: the number of
+     * its own discs left unplayed when it wins, negative when it loses, zero
+     * for a draw. Only meaningful when {@link #isLastMoveSolved()}.
+     */
+    public int getLastSolvedScore() {
+        return lastSolvedScore;
+    }
+
+    /** Nodes, cutoffs, depth, time and table hits of the most recent search. */
+    @Override
+    public SearchStats getLastSearchStats() {
+        return lastStats;
+    }
+
+    public long getNodeCount() {
+        long total = solverNodes;
+        for (Searcher searcher : searchers) {
+            total += searcher.nodes;
+        }
+        return total;
+    }
+
+    public long getCutoffCount() {
+        long total = 0;
+        for (Searcher searcher : searchers) {
+            total += searcher.cutoffs;
+        }
+        return total;
+    }
+
+    /** Share of beta cutoffs in the last search that came from the first move tried. */
+    public double getFirstMoveCutoffRate() {
+        long cutoffs = getCutoffCount();
+        long firstMoveCutoffs = 0;
+        for (Searcher searcher : searchers) {
+            firstMoveCutoffs += searcher.firstMoveCutoffs;
+        }
+        return cutoffs == 0 ? 0 : (double) firstMoveCutoffs / cutoffs;
+    }
+
+    @Override
+    public int getBestMove(Position position, int searchToken) {
+        if (position.getGeometry() != geometry) {
+            throw new IllegalArgumentException("Position is " + position.getGeometry() + ", player is " + geometry);
+        }
+        stopPondering();
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        long start = System.nanoTime();
+        long probesBefore = transpositionTable.getProbes();
+        long hitsBefore = transpositionTable.getHits();
+
+        int col = search(position, searchToken);
+
+        long leaves = 0;
+        long firstMoveCutoffs = 0;
+        for (Searcher searcher : searchers) {
+            leaves += searcher.leaves;
+            firstMoveCutoffs += searcher.firstMoveCutoffs;
+        }
+        SearchStats stats = new SearchStats(getNodeCount(), leaves, getCutoffCount(), firstMoveCutoffs,
+                lastDepth, System.nanoTime() - start, transpositionTable.getProbes() - probesBefore,
+                transpositionTable.getHits() - hitsBefore, lastMoveFromBook);
+        lastStats = stats;
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.seed = aiSeed.name();
+            event.column = col;
+            event.score = lastScore;
+            event.depth = stats.getDepth();
+            event.nodes = stats.getNodes();
+            event.leafEvaluations = stats.getLeafEvaluations();
+            event.betaCutoffs = stats.getBetaCutoffs();
+            event.firstMoveCutoffs = stats.getFirstMoveCutoffs();
+            event.tableProbes = stats.getTableProbes();
+            event.tableHits = stats.getTableHits();
+            event.fromBook = stats.isFromBook();
+            event.commit();
+        }
+        return col;
+    }
+
+    private void resetSearch(long budgetMillis, int token, boolean pondering) {
+        searchToken = token;
+        ponderSearch = pondering;
+        aborted = false;
+        sharedNodes.set(0);
+        deadline = budgetMillis > 0 ? System.nanoTime() + budgetMillis * 1_000_000 : Long.MAX_VALUE;
+        transpositionTable.newSearch();
+        for (Searcher searcher : searchers) {
+            searcher.reset();
+        }
+    }
+
+    private int search(Position position, int token) {
+        resetSearch(timeBudgetMillis, token, false);
+        lastDepth = -1;
+        lastScore = 0;
+        lastMoveSolved = false;
+        solverNodes = 0;
+
+        OpeningBook book = getOpeningBook();
+        lastMoveFromBook = false;
+        if (book != null) {
+            int bookCol = book.lookup(position);
+            if (bookCol != OpeningBook.MISS && position.canPlay(bookCol)) {
+                lastMoveFromBook = true;
+                lastScore = book.lookupScore(position);
+                return bookCol;
+            }
+        }
+
+        if (solverMode && Solver.supports(geometry)
+                && geometry.getSize() - position.getMoveCount() <= solverMaxEmptyCells) {
+            int solvedCol = solve(position);
+            if (solvedCol >= 0) {
+                return solvedCol;
+            }
+        }
+
+        int bestCol = firstLegalMove(position);
+        int remainingMoves = geometry.getSize() - position.getMoveCount() - 1;
+        int startDepth = 0;
+
+        int pondered = findPonderResult(position);
+        if (pondered >= 0 && position.canPlay(ponderMoves[pondered])) {
+            bestCol = ponderMoves[pondered];
+            lastDepth = ponderDepths[pondered];
+            lastScore = ponderScores[pondered];
+            if (lastDepth >= Math.min(maxDepth, remainingMoves)) {
+                return bestCol; // pondering already finished this search
+            }
+            startDepth = lastDepth + 1;
+        }
+
+        for (int depth = startDepth; depth <= maxDepth; depth++) {
+            int count = searchRoot(position, depth, bestCol);
+            if (aborted) {
+                break;
+            }
+            bestCol = pickBest(count);
+            lastDepth = depth;
+            lastScore = iterationScore;
+            if (depth >= remainingMoves) {
+                break; // the whole game tree fits inside this depth
+            }
+        }
+
+        return bestCol;
+    }
+
+    /**
+     * Scores every legal column of {@code position} (AI to move) at depth 0,
+     * 1, 2 and so on, reporting each column as soon as its score at the
+     * current depth is known. Runs on the calling thread with one searcher
+     * and no time limit, until {@link #cancel()}, the listener returning
+     * false, or the end of the game tree. Scores are exact at their depth,
+     * as in a normal search.
+     */
+    public void analyze(Position position, AnalysisListener listener) {
+        analyze(position, getSearchToken(), listener);
+    }
+
+    /**
+     * As {@link #analyze(Position, AnalysisListener)}, but stopped by any
+     * {@link #cancel()} made after {@code searchToken} was taken.
+     */
+    public void analyze(Position position, int searchToken, AnalysisListener listener) {
+        resetSearch(0, searchToken, false);
+        if (position.checkWin() != State.PLAYING) {
+            return;
+        }
+        Searcher searcher = searchers[0];
+        boolean symmetric = position.isSymmetric();
+        int bestCol = firstLegalMove(position);
+        int remainingMoves = geometry.getSize() - position.getMoveCount() - 1;
+        for (int depth = 0; depth <= Math.min(maxDepth, remainingMoves); depth++) {
+            int count = rootMoves(position, bestCol);
+            searcher.position.copyFrom(position);
+            for (int i = 0; i < count; i++) {
+                if (isCancelled()) {
+                    return; // shallow depths finish between budget checks
+                }
+                int col = rootMoves[i];
+                rootScores[i] = searcher.searchRootMove(col, depth);
+                if (aborted || !listener.columnScored(col, rootScores[i], depth)) {
+                    return;
+                }
+                int mirror = position.mirrorColumn(col);
+                if (symmetric && mirror != col && !listener.columnScored(mirror, rootScores[i], depth)) {
+                    return;
                 }
             }
+            bestCol = pickBest(count);
+        }
+    }
+
+    /**
+     * Solves {@code position} within half of what is left of the budget;
+     * returns the perfect move, or -1 when the solver ran out of time or nodes.
+     */
+    private int solve(Position position) {
+        long now = System.nanoTime();
+        long solverDeadline = deadline == Long.MAX_VALUE ? Long.MAX_VALUE : now + (deadline - now) / 2;
+        long solverNodeBudget = nodeBudget / 2;
+        if (solver == null) {
+            solver = new Solver(geometry, new TranspositionTable(solverTableSize,
+                    TranspositionTable.ReplacementPolicy.ALWAYS));
+        }
+        solver.setBudget(() -> isCancelled() || System.nanoTime() >= solverDeadline
+                || (solverNodeBudget > 0 && solver.getNodeCount() >= solverNodeBudget));
+        long result = solver.bestMove(position);
+        solverNodes = solver.getNodeCount();
+        sharedNodes.addAndGet(solverNodes);
+        if (result == -1) {
+            return -1; // losing scores pack to other negative values
         }
+        lastMoveSolved = true;
+        lastSolvedScore = Solver.scoreOf(result);
+        lastScore = Integer.signum(lastSolvedScore) * WIN_SCORE;
+        lastDepth = geometry.getSize() - position.getMoveCount() - 1;
+        return Solver.columnOf(result);
+    }
 
-        return bestCol == -1 ? 0 : bestCol;
+    /**
+     * Starts searching, in the background, the AI's answer to every reply the
+     * opponent can make from {@code position} (opponent to move). Results go
+     * into the transposition table and a small per-reply cache, so the next
+     * {@link #getBestMove} either returns at once or continues from the
+     * deepest pondered iteration. Call {@link #stopPondering()} as soon as the
+     * real move is known.
+     */
+    @Override
+    public synchronized void startPondering(Position position) {
+        stopPondering();
+        ponderStopRequested = false;
+        Position snapshot = new Position(position);
+        if (ponderExecutor == null) {
+            ponderExecutor = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "ai-ponder");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        ponderTask = ponderExecutor.submit(() -> ponder(snapshot));
     }
 
-    private int minimax(Board board, int depth, boolean isMaximizing, int alpha, int beta) {
-        State result = board.checkWin();
+    /** Stops pondering and waits (at most one budget check) for the ponder thread to let go. */
+    @Override
+    public synchronized void stopPondering() {
+        if (ponderTask == null) {
+            return;
+        }
+        ponderStopRequested = true;
+        try {
+            ponderTask.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | CancellationException e) {
+            System.err.println("Pondering failed: " + e.getCause());
+        }
+        ponderTask = null;
+        ponderStopRequested = false; // otherwise the search that follows would stop at its first check
+    }
 
-        if (result == State.CROSS_WON) return isMaximizing ? -1000 : 1000;
-        if (result == State.NOUGHT_WON) return isMaximizing ? 1000 : -1000;
-        if (result == State.DRAW) return 0;
-        if (depth >= MAX_DEPTH) return evaluateBoard(board);
+    private void ponder(Position position) {
+        resetSearch(0, getSearchToken(), true);
+        Arrays.fill(ponderValid, false);
+        if (ponderStopRequested || position.checkWin() != State.PLAYING) {
+            return;
+        }
 
-        if (isMaximizing) {
-            int maxEval = Integer.MIN_VALUE;
-            for (int col = 0; col < Board.COLS; col++) {
-                if (board.getLowestEmptyRow(col) != -1) {
-                    Board tempBoard = board.clone();
-                    tempBoard.makeMove(aiSeed, col);
-                    int eval = minimax(tempBoard, depth + 1, false, alpha, beta);
-                    maxEval = Math.max(maxEval, eval);
-                    alpha = Math.max(alpha, eval);
-                    if (beta <= alpha) break;
-                }
+        // Most likely replies first: those that leave the AI with the lowest static score.
+        int[] replies = new int[cols];
+        int count = 0;
+        for (int col : centerOrder) {
+            if (!position.canPlay(col)) {
+                continue;
             }
-            return maxEval;
-        } else {
-            int minEval = Integer.MAX_VALUE;
-            for (int col = 0; col < Board.COLS; col++) {
-                if (board.getLowestEmptyRow(col) != -1) {
-                    Board tempBoard = board.clone();
-                    tempBoard.makeMove(aiSeed == Seed.CROSS ? Seed.NOUGHT : Seed.CROSS, col);
-                    int eval = minimax(tempBoard, depth + 1, true, alpha, beta);
-                    minEval = Math.min(minEval, eval);
-                    beta = Math.min(beta, eval);
-                    if (beta <= alpha) break;
+            position.makeMove(oppSeed, col);
+            int score = position.checkWin() == State.PLAYING ? position.evaluate(aiSeed) : Integer.MIN_VALUE;
+            position.undoMove(col);
+            int i = count++;
+            while (i > 0 && scoreAfter(position, replies[i - 1]) > score) {
+                replies[i] = replies[i - 1];
+                i--;
+            }
+            replies[i] = col;
+        }
+
+        for (int depth = 0; depth <= maxDepth; depth++) {
+            boolean searched = false;
+            for (int r = 0; r < count; r++) {
+                int reply = replies[r];
+                position.makeMove(oppSeed, reply);
+                int remainingMoves = geometry.getSize() - position.getMoveCount() - 1;
+                if (position.checkWin() == State.PLAYING && depth <= remainingMoves) {
+                    int previous = ponderValid[reply] && ponderKeys[reply] == position.getKey()
+                            ? ponderMoves[reply] : firstLegalMove(position);
+                    int moves = searchRoot(position, depth, previous);
+                    if (!aborted) {
+                        ponderMoves[reply] = pickBest(moves);
+                        ponderDepths[reply] = depth;
+                        ponderScores[reply] = iterationScore;
+                        ponderKeys[reply] = position.getKey();
+                        ponderValid[reply] = true;
+                        searched = true;
+                    }
                 }
+                position.undoMove(reply);
+                if (aborted) {
+                    return;
+                }
+            }
+            if (!searched) {
+                return;
             }
-            return minEval;
         }
     }
 
-    private int evaluateBoard(Board board) {
-        int score = 0;
+    private int scoreAfter(Position position, int reply) {
+        position.makeMove(oppSeed, reply);
+        int score = position.checkWin() == State.PLAYING ? position.evaluate(aiSeed) : Integer.MIN_VALUE;
+        position.undoMove(reply);
+        return score;
+    }
 
-        for (int row = 0; row < Board.ROWS; row++) {
-            for (int col = 0; col < Board.COLS - 3; col++) {
-                score += evaluateLine(board, row, col, 0, 1);
+    private int findPonderResult(Position position) {
+        long key = position.getKey();
+        for (int i = 0; i < ponderKeys.length; i++) {
+            if (ponderValid[i] && ponderKeys[i] == key) {
+                return i;
             }
         }
+        return -1;
+    }
+
+    /**
+     * Scores every root move with a full window into {@link #rootScores}, so
+     * each score is exact and the choice does not depend on search order.
+     */
+    private int searchRoot(Position position, int depth, int previousBest) {
+        int count = rootMoves(position, previousBest);
 
-        for (int row = 0; row < Board.ROWS - 3; row++) {
-            for (int col = 0; col < Board.COLS; col++) {
-                score += evaluateLine(board, row, col, 1, 0);
+        if (threads == 1) {
+            Searcher searcher = searchers[0];
+            searcher.position.copyFrom(position);
+            for (int i = 0; i < count && !aborted; i++) {
+                rootScores[i] = searcher.searchRootMove(rootMoves[i], depth);
             }
+            return count;
         }
 
-        for (int row = 0; row < Board.ROWS - 3; row++) {
-            for (int col = 0; col < Board.COLS - 3; col++) {
-                score += evaluateLine(board, row, col, 1, 1);
-                score += evaluateLine(board, row + 3, col, -1, 1);
+        List<Callable<Void>> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            Searcher searcher = searchers[i];
+            searcher.position.copyFrom(position);
+            tasks.add(() -> {
+                rootScores[index] = searcher.searchRootMove(rootMoves[index], depth);
+                return null;
+            });
+        }
+        getPool().invokeAll(tasks);
+        return count;
+    }
+
+    /**
+     * Orders the root moves into {@link #rootMoves}. On a symmetric board a
+     * move and its mirror lead to equal positions, so only the left half and
+     * the centre are kept; ties already go to the leftmost column.
+     */
+    private int rootMoves(Position position, int previousBest) {
+        int count = searchers[0].orderMoves(position, 0, aiSeed, previousBest, rootMoves);
+        if (!position.isSymmetric()) {
+            return count;
+        }
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            if (rootMoves[i] <= position.mirrorColumn(rootMoves[i])) {
+                rootMoves[kept++] = rootMoves[i];
             }
         }
+        return kept;
+    }
 
-        return score;
+    private int pickBest(int count) {
+        int bestScore = Integer.MIN_VALUE;
+        int bestCol = -1;
+        for (int i = 0; i < count; i++) {
+            int col = rootMoves[i];
+            // Ties go to the leftmost column, as with the old left-to-right scan.
+            if (rootScores[i] > bestScore || (rootScores[i] == bestScore && col < bestCol)) {
+                bestScore = rootScores[i];
+                bestCol = col;
+            }
+        }
+        iterationScore = bestScore;
+        return bestCol;
     }
 
-    private int evaluateLine(Board board, int startRow, int startCol, int deltaRow, int deltaCol) {
-        int aiCount = 0;
-        int oppCount = 0;
+    private synchronized ForkJoinPool getPool() {
+        if (pool == null) {
+            pool = new ForkJoinPool(threads);
+        }
+        return pool;
+    }
 
-        for (int i = 0; i < 4; i++) {
-            Seed content = board.getCell(startRow + i * deltaRow, startCol + i * deltaCol).getContent();
-            if (content == aiSeed) aiCount++;
-            else if (content != Seed.NO_SEED) oppCount++;
+    private int firstLegalMove(Position position) {
+        for (int col : centerOrder) {
+            if (position.canPlay(col)) {
+                return col;
+            }
         }
+        return 0;
+    }
 
-        if (aiCount == 4) return 100;
-        if (oppCount == 4) return -100;
-        if (aiCount > 0 && oppCount > 0) return 0;
-        return aiCount * aiCount * aiCount;
+    private boolean isCancelled() {
+        return cancelGeneration.get() != searchToken;
+    }
+
+    private boolean outOfBudget(long nodesSinceCheck) {
+        long total = sharedNodes.addAndGet(nodesSinceCheck);
+        if (isCancelled() || (ponderSearch && ponderStopRequested) || (nodeBudget > 0 && total >= nodeBudget)
+                || System.nanoTime() >= deadline) {
+            aborted = true;
+        }
+        return aborted;
+    }
+
+    public int evaluateBoard(Position position) {
+        return position.evaluate(aiSeed);
+    }
+
+    /**
+     * Per-thread search state: its own position, move lists, killers and
+     * history, all preallocated so the search itself allocates nothing.
+     */
+    private final class Searcher {
+        private final Position position = new Position(geometry);
+        private final int[][] moveLists = new int[geometry.getSize() + 1][cols];
+        private final int[][] killers = new int[geometry.getSize() + 1][2];
+        private final int[][] history = new int[2][geometry.getBitCount()];
+        private final int[] orderKeys = new int[cols];
+        private long nodes;
+        private long leaves;
+        private long cutoffs;
+        private long firstMoveCutoffs;
+        private boolean stopped;
+
+        private void reset() {
+            nodes = 0;
+            leaves = 0;
+            cutoffs = 0;
+            firstMoveCutoffs = 0;
+            stopped = false;
+            for (int[] plyKillers : killers) {
+                plyKillers[0] = -1;
+                plyKillers[1] = -1;
+            }
+            for (int[] sideHistory : history) {
+                for (int i = 0; i < sideHistory.length; i++) {
+                    sideHistory[i] >>= 1;
+                }
+            }
+        }
+
+        private int searchRootMove(int col, int depth) {
+            position.makeMove(aiSeed, col);
+            int score = minimax(1, depth, false, Integer.MIN_VALUE, Integer.MAX_VALUE);
+            position.undoMove(col);
+            return score;
+        }
+
+        private int minimax(int ply, int remaining, boolean isMaximizing, int alpha, int beta) {
+            if ((++nodes & CHECK_INTERVAL) == 0 && outOfBudget(CHECK_INTERVAL + 1)) {
+                stopped = true;
+                return 0;
+            }
+
+            State result = position.checkWin();
+
+            // Only the side that just moved can have won: the AI if it is now the opponent's turn.
+            if (result == State.CROSS_WON || result == State.NOUGHT_WON) return isMaximizing ? -WIN_SCORE : WIN_SCORE;
+            if (result == State.DRAW) return 0;
+            if (remaining <= 0) {
+                leaves++;
+                return evaluateBoard(position);
+            }
+
+            // Mirror images share an entry; its move is stored as seen from the canonical side.
+            long key = position.getCanonicalHash();
+            boolean mirrored = position.isMirrored();
+            long entry = transpositionTable.probe(key);
+            int hashMove = entry != TranspositionTable.MISS ? TranspositionTable.moveOf(entry) : -1;
+            if (hashMove >= 0 && mirrored) {
+                hashMove = position.mirrorColumn(hashMove);
+            }
+            if (entry != TranspositionTable.MISS && TranspositionTable.depthOf(entry) >= remaining) {
+                int stored = TranspositionTable.scoreOf(entry);
+                int bound = TranspositionTable.boundOf(entry);
+                if (bound == TranspositionTable.EXACT) return stored;
+                if (bound == TranspositionTable.LOWER && stored >= beta) return stored;
+                if (bound == TranspositionTable.UPPER && stored <= alpha) return stored;
+            }
+
+            int alphaOrig = alpha;
+            int betaOrig = beta;
+            Seed player = isMaximizing ? aiSeed : oppSeed;
+            int[] moves = moveLists[ply];
+            int count = orderMoves(position, ply, player, hashMove, moves);
+            int bestCol = moves[0];
+            int bestEval = isMaximizing ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+
+            for (int i = 0; i < count; i++) {
+                int col = moves[i];
+                position.makeMove(player, col);
+                int eval = minimax(ply + 1, remaining - 1, !isMaximizing, alpha, beta);
+                position.undoMove(col);
+                if (stopped) return 0;
+                if (isMaximizing ? eval > bestEval : eval < bestEval) {
+                    bestEval = eval;
+                    bestCol = col;
+                }
+                if (isMaximizing) {
+                    alpha = Math.max(alpha, eval);
+                } else {
+                    beta = Math.min(beta, eval);
+                }
+                if (beta <= alpha) {
+                    recordCutoff(ply, remaining, player, col, i);
+                    break;
+                }
+            }
+
+            int bound = bestEval <= alphaOrig ? TranspositionTable.UPPER
+                    : bestEval >= betaOrig ? TranspositionTable.LOWER
+                    : TranspositionTable.EXACT;
+            transpositionTable.store(key, remaining, bound, bestEval, mirrored ? position.mirrorColumn(bestCol) : bestCol);
+            return bestEval;
+        }
+
+        /**
+         * Fills {@code moves} with the legal columns in search order: the hash or
+         * previous-iteration move, then this ply's killers, then the rest by
+         * history score with the centre columns first on ties.
+         */
+        private int orderMoves(Position position, int ply, Seed player, int hashMove, int[] moves) {
+            int[] sideHistory = history[player.ordinal()];
+            int[] plyKillers = killers[ply];
+            int[] keys = orderKeys;
+            int count = 0;
+
+            for (int col : centerOrder) {
+                if (!position.canPlay(col)) {
+                    continue;
+                }
+                int key;
+                if (col == hashMove) {
+                    key = Integer.MAX_VALUE;
+                } else if (col == plyKillers[0]) {
+                    key = Integer.MAX_VALUE - 1;
+                } else if (col == plyKillers[1]) {
+                    key = Integer.MAX_VALUE - 2;
+                } else {
+                    key = sideHistory[historyIndex(position, col)];
+                }
+                int i = count++;
+                while (i > 0 && keys[i - 1] < key) {
+                    keys[i] = keys[i - 1];
+                    moves[i] = moves[i - 1];
+                    i--;
+                }
+                keys[i] = key;
+                moves[i] = col;
+            }
+            return count;
+        }
+
+        private int historyIndex(Position position, int col) {
+            return geometry.bitIndex(geometry.getRows() - 1 - position.getLowestEmptyRow(col), col);
+        }
+
+        private void recordCutoff(int ply, int remaining, Seed player, int col, int moveIndex) {
+            cutoffs++;
+            if (moveIndex == 0) {
+                firstMoveCutoffs++;
+            }
+            int[] plyKillers = killers[ply];
+            if (plyKillers[0] != col) {
+                plyKillers[1] = plyKillers[0];
+                plyKillers[0] = col;
+            }
+            history[player.ordinal()][historyIndex(position, col)] += remaining * remaining;
+        }
     }
 }
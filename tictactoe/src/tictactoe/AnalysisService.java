@@ -0,0 +1,148 @@
+package tictactoe;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import javax.swing.Timer;
+
+/**
+ * Background analysis behind the panel's heat strip: every legal column of
+ * the current board is re-scored for the side to move at increasing depths
+ * until the next move cancels the run and starts a new one.
+ *
+ * Column scores arrive far more often than they are worth painting, so they
+ * are collected here and handed to the listener on the EDT as one snapshot,
+ * at most once every {@link #UPDATE_INTERVAL_MILLIS}.
+ */
+public class AnalysisService {
+    public static final int UPDATE_INTERVAL_MILLIS = 100;
+    private static final int TABLE_SIZE = 1 << 18; // per side; 16 bytes per entry
+
+    /** Column scores from one side's point of view; depth -1 for columns not scored yet. */
+    public static final class Analysis {
+        public static final Analysis EMPTY = new Analysis(Seed.NO_SEED, new int[0], new int[0]);
+
+        private final Seed player;
+        private final int[] scores;
+        private final int[] depths;
+
+        private Analysis(Seed player, int[] scores, int[] depths) {
+            this.player = player;
+            this.scores = scores;
+            this.depths = depths;
+        }
+
+        /** The side to move, whose point of view the scores take. */
+        public Seed getPlayer() {
+            return player;
+        }
+
+        public int getScore(int col) {
+            return scores[col];
+        }
+
+        public int getDepth(int col) {
+            return col < depths.length ? depths[col] : -1;
+        }
+
+        /** Whether a score means a forced win (positive) or loss (negative) within its depth. */
+        public static boolean isDecisive(int score) {
+            return Math.abs(score) >= AIPlayer.WIN_SCORE;
+        }
+    }
+
+    private final AIPlayer crossAnalyser;
+    private final AIPlayer noughtAnalyser;
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "ai-analysis");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+    private final Timer updateTimer;
+    // Results of the current run; generation tells them apart from cancelled runs.
+    private final int[] scores;
+    private final int[] depths;
+    private Seed player = Seed.NO_SEED;
+    private int generation;
+
+    /** {@code listener} is called on the EDT with the latest snapshot. */
+    public AnalysisService(Geometry geometry, Consumer<Analysis> listener) {
+        this.crossAnalyser = newAnalyser(Seed.CROSS, geometry);
+        this.noughtAnalyser = newAnalyser(Seed.NOUGHT, geometry);
+        this.scores = new int[geometry.getCols()];
+        this.depths = new int[geometry.getCols()];
+        Arrays.fill(depths, -1);
+        this.updateTimer = new Timer(UPDATE_INTERVAL_MILLIS, e -> listener.accept(getAnalysis()));
+        this.updateTimer.setRepeats(false);
+    }
+
+    private static AIPlayer newAnalyser(Seed seed, Geometry geometry) {
+        AIPlayer analyser = new AIPlayer(seed, geometry, new TranspositionTable(TABLE_SIZE,
+                TranspositionTable.ReplacementPolicy.DEPTH_PREFERRED));
+        analyser.setOpeningBook(null);
+        return analyser;
+    }
+
+    /** Cancels the running analysis and starts one of {@code board} with {@code toMove} to play. */
+    public synchronized void analyze(Board board, Seed toMove) {
+        stop();
+        player = toMove;
+        int id = generation;
+        Position snapshot = Position.fromBoard(board);
+        AIPlayer analyser = (toMove == Seed.CROSS) ? crossAnalyser : noughtAnalyser;
+        // Taken after stop(), so only the next stop() cancels this run, even before it starts.
+        int token = analyser.getSearchToken();
+        worker.execute(() -> {
+            if (isCurrent(id)) {
+                analyser.analyze(snapshot, token, (col, score, depth) -> publish(id, col, score, depth));
+            }
+        });
+    }
+
+    /** Cancels the running analysis and clears its results. */
+    public synchronized void stop() {
+        generation++;
+        crossAnalyser.cancel();
+        noughtAnalyser.cancel();
+        player = Seed.NO_SEED;
+        Arrays.fill(depths, -1);
+        scheduleUpdate();
+    }
+
+    /** Stops and forgets the positions analysed in the previous game. */
+    public synchronized void newGame() {
+        stop();
+        worker.execute(() -> {
+            crossAnalyser.newGame();
+            noughtAnalyser.newGame();
+        });
+    }
+
+    /** Snapshot of the results found so far. */
+    public synchronized Analysis getAnalysis() {
+        return new Analysis(player, scores.clone(), depths.clone());
+    }
+
+    private synchronized boolean isCurrent(int id) {
+        return id == generation;
+    }
+
+    private synchronized boolean publish(int id, int col, int score, int depth) {
+        if (id != generation) {
+            return false;
+        }
+        scores[col] = score;
+        depths[col] = depth;
+        scheduleUpdate();
+        return true;
+    }
+
+    /** Coalesces updates: one pending timer delivers everything published before it fires. */
+    private void scheduleUpdate() {
+        if (!updateTimer.isRunning()) {
+            updateTimer.start();
+        }
+    }
+}
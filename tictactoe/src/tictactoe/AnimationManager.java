@@ -1,58 +1,98 @@
 package tictactoe;
 
 import java.awt.Graphics;
-import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import javax.swing.Timer;
 
+/**
+ * Drops discs into place. Each disc's height comes from the time elapsed
+ * since it was dropped, so the fall takes the same time whatever the frame
+ * rate, and several discs can be falling at once. Every frame repaints only
+ * the column strips that have a disc in flight.
+ */
 public class AnimationManager {
-    private int currentRow;
-    private int targetRow;
-    private int currentCol;
-    private Seed player;
-    private boolean isAnimating;
+    private static final int FRAME_RATE = 60;
+    private static final double ROWS_PER_SECOND = 10.0; // Perlambat sedikit animasi
+    private static final long NANOS_PER_ROW = (long) (1_000_000_000L / ROWS_PER_SECOND);
+
+    private final List<Drop> drops = new ArrayList<>();
     private final Timer timer;
-    private static final int ANIMATION_SPEED = 100; // Perlambat sedikit animasi
 
     public AnimationManager() {
-        isAnimating = false;
-        timer = new Timer(ANIMATION_SPEED, e -> {
-            updateAnimation();
-            // Tambahkan repaint untuk memperbarui tampilan
-            if (ConnectFour.getInstance() != null) {
-                ConnectFour.getInstance().repaint();
-            }
-        });
+        timer = new Timer(1000 / FRAME_RATE, e -> updateAnimation());
+        timer.setCoalesce(true);
     }
 
     public void startAnimation(int targetRow, int col, Seed player) {
-        this.currentRow = -1; // Mulai dari atas layar
-        this.targetRow = targetRow;
-        this.currentCol = col;
-        this.player = player;
-        this.isAnimating = true;
-        timer.start();
+        drops.add(new Drop(targetRow, col, player, System.nanoTime()));
+        repaintColumn(col);
+        if (!timer.isRunning()) {
+            timer.start();
+        }
     }
 
     private void updateAnimation() {
-        if (currentRow < targetRow) {
-            currentRow++;
-            SwingUtilities.invokeLater(() -> ConnectFour.getInstance().repaint());
-        } else {
+        long now = System.nanoTime();
+        Iterator<Drop> it = drops.iterator();
+        while (it.hasNext()) {
+            Drop drop = it.next();
+            if (drop.rowAt(now) >= drop.targetRow) {
+                it.remove(); // the disc is already drawn in place by the board
+            }
+            repaintColumn(drop.col);
+        }
+        if (drops.isEmpty()) {
             timer.stop();
-            isAnimating = false;
         }
     }
 
+    private void repaintColumn(int col) {
+        ConnectFour panel = ConnectFour.getInstance();
+        if (panel != null) {
+            panel.repaint(col * Cell.SIZE, panel.getBoardTop(), Cell.SIZE, panel.getBoard().getCanvasHeight());
+        }
+    }
 
     public void paint(Graphics g) {
-        if (isAnimating && player != null && player.getImage() != null) {
-            int x = currentCol * Cell.SIZE + Cell.PADDING;
-            int y = currentRow * Cell.SIZE + Cell.PADDING;
-            g.drawImage(player.getImage(), x, y, Cell.SEED_SIZE, Cell.SEED_SIZE, null);
+        long now = System.nanoTime();
+        for (Drop drop : drops) {
+            int x = drop.col * Cell.SIZE + Cell.PADDING;
+            int y = (int) Math.round(Math.min(drop.rowAt(now), drop.targetRow) * Cell.SIZE) + Cell.PADDING;
+            Cell.paintSeed(g, drop.player, x, y);
         }
     }
 
     public boolean isAnimating() {
-        return isAnimating;
+        return !drops.isEmpty();
+    }
+
+    /** Clears any discs still falling, e.g. when a new game starts. */
+    public void clear() {
+        for (Drop drop : drops) {
+            repaintColumn(drop.col);
+        }
+        drops.clear();
+        timer.stop();
+    }
+
+    private static final class Drop {
+        private final int targetRow;
+        private final int col;
+        private final Seed player;
+        private final long startNanos;
+
+        private Drop(int targetRow, int col, Seed player, long startNanos) {
+            this.targetRow = targetRow;
+            this.col = col;
+            this.player = player;
+            this.startNanos = startNanos;
+        }
+
+        /** Fractional row of the disc; it starts one row above the board. */
+        private double rowAt(long now) {
+            return -1 + (double) (now - startNanos) / NANOS_PER_ROW;
+        }
     }
-}
\ No newline at end of file
+}
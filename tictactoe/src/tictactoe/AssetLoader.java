@@ -0,0 +1,42 @@
+package tictactoe;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Decodes the seed images and opens the sound clips in parallel on
+ * background threads, so the window can show before any asset is ready.
+ * Until then cells are drawn as plain coloured discs and sounds are silent.
+ */
+public final class AssetLoader {
+    private AssetLoader() {
+    }
+
+    /**
+     * Starts loading every asset and returns a future that completes once all
+     * are loaded (or have failed and been reported).
+     */
+    public static CompletableFuture<Void> loadAsync() {
+        List<Runnable> tasks = new ArrayList<>();
+        for (Seed seed : Seed.values()) {
+            tasks.add(seed::loadImage);
+        }
+        for (SoundEffect effect : SoundEffect.values()) {
+            tasks.add(effect::load);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(tasks.size(), r -> {
+            Thread thread = new Thread(r, "asset-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[tasks.size()];
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = CompletableFuture.runAsync(tasks.get(i), executor);
+        }
+        return CompletableFuture.allOf(futures).whenComplete((ignored, error) -> executor.shutdown());
+    }
+}
@@ -0,0 +1,45 @@
+package tictactoe;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The one thread that talks to the audio device. Callers hand it work
+ * through a lock-free queue and return at once, so starting, stopping or
+ * opening a line never blocks the EDT.
+ */
+final class AudioThread {
+    private static final Queue<Runnable> QUEUE = new ConcurrentLinkedQueue<>();
+    private static final Thread THREAD = start();
+
+    private AudioThread() {
+    }
+
+    static void submit(Runnable task) {
+        QUEUE.offer(task);
+        LockSupport.unpark(THREAD);
+    }
+
+    private static Thread start() {
+        Thread thread = new Thread(AudioThread::run, "audio");
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private static void run() {
+        while (true) {
+            Runnable task = QUEUE.poll();
+            if (task == null) {
+                LockSupport.park(); // unpark() before park() makes this return at once
+                continue;
+            }
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                System.err.println("Error playing sound: " + e);
+            }
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package tictactoe;
 
 import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
 
 public class Board {
+    // Dimensions of the standard board; a Board built from another Geometry has its own.
     public static final int ROWS = 6;
     public static final int COLS = 7;
     public static final int CANVAS_WIDTH = Cell.SIZE * COLS;
@@ -12,27 +15,71 @@ public class Board {
     public static final Color COLOR_GRID = Color.LIGHT_GRAY;
     public static final int Y_OFFSET = 1;
 
+    private final Geometry geometry;
+    private final int rows;
+    private final int cols;
+    private final int winLength;
     private Cell[][] cells;
+    private final int[] heights;
+    private final int[] moveStack;
+    // Game state after each move, so checkWin() and undoMove() never rescan the grid.
+    private final State[] stateStack;
+    private int moveCount;
+    // Grid and placed discs, redrawn only after the board changes.
+    private BufferedImage backBuffer;
+    private boolean backBufferValid;
 
     public Board() {
+        this(Geometry.STANDARD);
+    }
+
+    public Board(Geometry geometry) {
+        this.geometry = geometry;
+        this.rows = geometry.getRows();
+        this.cols = geometry.getCols();
+        this.winLength = geometry.getWinLength();
+        this.heights = new int[cols];
+        this.moveStack = new int[geometry.getSize()];
+        this.stateStack = new State[geometry.getSize()];
         initializeBoard();
     }
 
+    // Copies every field directly; going through Board(Geometry) would build a grid of Cells only to replace it.
+    private Board(Board other) {
+        this.geometry = other.geometry;
+        this.rows = other.rows;
+        this.cols = other.cols;
+        this.winLength = other.winLength;
+        this.cells = new Cell[rows][cols];
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                cells[row][col] = new Cell(other.cells[row][col]);
+            }
+        }
+        this.heights = other.heights.clone();
+        this.moveStack = other.moveStack.clone();
+        this.stateStack = other.stateStack.clone();
+        this.moveCount = other.moveCount;
+    }
+
     private void initializeBoard() {
-        cells = new Cell[ROWS][COLS];
-        for (int row = 0; row < ROWS; row++) {
-            for (int col = 0; col < COLS; col++) {
+        cells = new Cell[rows][cols];
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
                 cells[row][col] = new Cell(row, col);
             }
         }
     }
 
     public void newGame() {
-        for (int row = 0; row < ROWS; row++) {
-            for (int col = 0; col < COLS; col++) {
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
                 cells[row][col].newGame();
             }
         }
+        Arrays.fill(heights, 0);
+        moveCount = 0;
+        backBufferValid = false;
     }
 
     public State makeMove(Seed player, int selectedCol) {
@@ -42,8 +89,37 @@ public class Board {
             return State.PLAYING;
         }
     
+        State previous = checkWin();
         cells[selectedRow][selectedCol].setContent(player);
-        return checkGameState(player, selectedRow, selectedCol);
+        heights[selectedCol]++;
+        backBufferValid = false;
+        moveStack[moveCount++] = selectedCol;
+        State state = checkGameState(player, selectedRow, selectedCol);
+        // Once someone has won, later moves do not change the result.
+        stateStack[moveCount - 1] = (previous == State.CROSS_WON || previous == State.NOUGHT_WON) ? previous : state;
+        return state;
+    }
+
+    /**
+     * Takes back the most recent move made with {@link #makeMove} and returns
+     * its column, or -1 when there is nothing to undo.
+     */
+    public int undoMove() {
+        if (moveCount == 0) {
+            return -1;
+        }
+        int col = moveStack[--moveCount];
+        cells[rows - heights[col]--][col].setContent(Seed.NO_SEED);
+        backBufferValid = false;
+        return col;
+    }
+
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    public int getMove(int index) {
+        return moveStack[index];
     }
 
     private State checkGameState(Seed player, int selectedRow, int selectedCol) {
@@ -59,97 +135,75 @@ public class Board {
     }
 
     private boolean hasWon(Seed player, int row, int col) {
-        return (checkHorizontal(player, row) || 
-                checkVertical(player, col) || 
-                checkDiagonal(player) || 
-                checkAntiDiagonal(player));
-    }
-    
-    private boolean checkHorizontal(Seed player, int row) {
-        for (int col = 0; col <= COLS - 4; col++) {
-            if (cells[row][col].getContent() == player &&
-                cells[row][col+1].getContent() == player &&
-                cells[row][col+2].getContent() == player &&
-                cells[row][col+3].getContent() == player) {
-                return true;
-            }
-        }
-        return false;
-    }
-    
-    private boolean checkVertical(Seed player, int col) {
-        for (int row = 0; row <= ROWS - 4; row++) {
-            if (cells[row][col].getContent() == player &&
-                cells[row+1][col].getContent() == player &&
-                cells[row+2][col].getContent() == player &&
-                cells[row+3][col].getContent() == player) {
-                return true;
-            }
-        }
-        return false;
+        return countLine(player, row, col, 0, 1) >= winLength
+                || countLine(player, row, col, 1, 0) >= winLength
+                || countLine(player, row, col, 1, 1) >= winLength
+                || countLine(player, row, col, 1, -1) >= winLength;
     }
-    
-    private boolean checkDiagonal(Seed player) {
-        for (int row = 0; row <= ROWS - 4; row++) {
-            for (int col = 0; col <= COLS - 4; col++) {
-                if (cells[row][col].getContent() == player &&
-                    cells[row+1][col+1].getContent() == player &&
-                    cells[row+2][col+2].getContent() == player &&
-                    cells[row+3][col+3].getContent() == player) {
-                    return true;
-                }
-            }
+
+    /** Length of the run of {@code player} discs through (row, col) along one direction. */
+    private int countLine(Seed player, int row, int col, int deltaRow, int deltaCol) {
+        int count = 1;
+        for (int r = row + deltaRow, c = col + deltaCol;
+                r >= 0 && r < rows && c >= 0 && c < cols && cells[r][c].getContent() == player;
+                r += deltaRow, c += deltaCol) {
+            count++;
         }
-        return false;
-    }
-    
-    private boolean checkAntiDiagonal(Seed player) {
-        for (int row = 3; row < ROWS; row++) {
-            for (int col = 0; col <= COLS - 4; col++) {
-                if (cells[row][col].getContent() == player &&
-                    cells[row-1][col+1].getContent() == player &&
-                    cells[row-2][col+2].getContent() == player &&
-                    cells[row-3][col+3].getContent() == player) {
-                    return true;
-                }
-            }
+        for (int r = row - deltaRow, c = col - deltaCol;
+                r >= 0 && r < rows && c >= 0 && c < cols && cells[r][c].getContent() == player;
+                r -= deltaRow, c -= deltaCol) {
+            count++;
         }
-        return false;
+        return count;
     }
 
     private boolean isDraw() {
-        for (int row = 0; row < ROWS; row++) {
-            for (int col = 0; col < COLS; col++) {
-                if (cells[row][col].getContent() == Seed.NO_SEED) {
-                    return false;
-                }
-            }
-        }
-        return true;
+        return moveCount == rows * cols;
+    }
+
+    /** Forces the next paint to redraw the grid and discs, e.g. once images have loaded. */
+    public void invalidateBackBuffer() {
+        backBufferValid = false;
     }
 
+    /** Draws the board with one blit of a back-buffer that is rebuilt only after a move. */
     public void paint(Graphics g) {
-        drawGrid(g);
-        drawCells(g);
+        if (backBuffer == null) {
+            GraphicsConfiguration config = (g instanceof Graphics2D g2) ? g2.getDeviceConfiguration() : null;
+            backBuffer = (config != null)
+                    ? config.createCompatibleImage(getCanvasWidth(), getCanvasHeight())
+                    : new BufferedImage(getCanvasWidth(), getCanvasHeight(), BufferedImage.TYPE_INT_RGB);
+            backBufferValid = false;
+        }
+        if (!backBufferValid) {
+            Graphics2D bg = backBuffer.createGraphics();
+            bg.setColor(ConnectFour.COLOR_BG); // opaque, so the blit is a straight copy
+            bg.fillRect(0, 0, getCanvasWidth(), getCanvasHeight());
+            drawGrid(bg);
+            drawCells(bg);
+            bg.dispose();
+            backBufferValid = true;
+        }
+        g.drawImage(backBuffer, 0, 0, null);
     }
 
     private void drawGrid(Graphics g) {
         g.setColor(COLOR_GRID);
-        for (int row = 1; row < ROWS; row++) {
+        for (int row = 1; row < rows; row++) {
             g.fillRoundRect(0, Cell.SIZE * row - GRID_WIDTH_HALF,
-                    CANVAS_WIDTH - 1, GRID_WIDTH,
+                    getCanvasWidth() - 1, GRID_WIDTH,
                     GRID_WIDTH, GRID_WIDTH);
         }
-        for (int col = 1; col < COLS; col++) {
+        for (int col = 1; col < cols; col++) {
             g.fillRoundRect(Cell.SIZE * col - GRID_WIDTH_HALF, Y_OFFSET,
-                    GRID_WIDTH, CANVAS_HEIGHT - 1,
+                    GRID_WIDTH, getCanvasHeight() - 1,
                     GRID_WIDTH, GRID_WIDTH);
         }
     }
 
     private void drawCells(Graphics g) {
-        for (int row = 0; row < ROWS; row++) {
-            for (int col = 0; col < COLS; col++) {
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
                 cells[row][col].paint(g);
             }
         }
@@ -160,42 +214,35 @@ public class Board {
     }
 
     public int getLowestEmptyRow(int col) {
-        for (int row = ROWS - 1; row >= 0; row--) {
-            if (cells[row][col].getContent() == Seed.NO_SEED) {
-                return row;
-            }
-        }
-        return -1;
+        return heights[col] < rows ? rows - 1 - heights[col] : -1;
+    }
+
+    public Geometry getGeometry() {
+        return geometry;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getCanvasWidth() {
+        return Cell.SIZE * cols;
+    }
+
+    public int getCanvasHeight() {
+        return Cell.SIZE * rows;
     }
 
     @Override
     public Board clone() {
-        Board cloneBoard = new Board();
-        for (int row = 0; row < ROWS; row++) {
-            for (int col = 0; col < COLS; col++) {
-                cloneBoard.cells[row][col] = new Cell(cells[row][col]);
-            }
-        }
-        return cloneBoard;
+        return new Board(this);
     }
 
     public State checkWin() {
-        // Check for winning conditions
-        for (int row = 0; row < ROWS; row++) {
-            for (int col = 0; col < COLS; col++) {
-                Seed content = cells[row][col].getContent();
-                if (content != Seed.NO_SEED) {
-                    if (hasWon(content, row, col)) {
-                        return content == Seed.CROSS ? State.CROSS_WON : State.NOUGHT_WON;
-                    }
-                }
-            }
-        }
-        
-        if (isDraw()) {
-            return State.DRAW;
-        }
-        
-        return State.PLAYING;
+        return moveCount == 0 ? State.PLAYING : stateStack[moveCount - 1];
     }
 }
\ No newline at end of file
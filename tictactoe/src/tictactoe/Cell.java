@@ -26,8 +26,20 @@ public class Cell {
     public void paint(Graphics g) {
         int x1 = col * SIZE + PADDING;
         int y1 = row * SIZE + PADDING;
-        if (content != null && content != Seed.NO_SEED && content.getImage() != null) {
-            g.drawImage(content.getImage(), x1, y1, SEED_SIZE, SEED_SIZE, null);
+        paintSeed(g, content, x1, y1);
+    }
+
+    /** Draws a seed's sprite at (x, y), or a plain disc while its image is still loading. */
+    public static void paintSeed(Graphics g, Seed seed, int x, int y) {
+        if (seed == null || seed == Seed.NO_SEED) {
+            return;
+        }
+        Image sprite = seed.getSprite(g);
+        if (sprite != null) {
+            g.drawImage(sprite, x, y, null);
+        } else {
+            g.setColor(seed.getPlaceholderColor());
+            g.fillOval(x, y, SEED_SIZE, SEED_SIZE);
         }
     }
 
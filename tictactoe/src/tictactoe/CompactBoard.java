@@ -0,0 +1,115 @@
+package tictactoe;
+
+import java.util.Arrays;
+
+/**
+ * Bare board for random playouts: one bit array per side and the column
+ * heights, nothing else. A move reports on the spot whether it completed a
+ * line, by counting discs outwards from it, so there is no evaluator or hash
+ * to keep up to date. Works for every {@link Geometry}.
+ */
+final class CompactBoard {
+    // Steps along the four line directions, as (columns, rows); vertical only needs to look down.
+    private static final int[][] DIRECTIONS = {{0, -1}, {1, 0}, {1, 1}, {1, -1}};
+
+    private final Geometry geometry;
+    private final int rows;
+    private final int cols;
+    private final int winLength;
+    private final long[] crossBits;
+    private final long[] noughtBits;
+    private final int[] heights;
+    private int moveCount;
+
+    CompactBoard(Geometry geometry) {
+        this.geometry = geometry;
+        this.rows = geometry.getRows();
+        this.cols = geometry.getCols();
+        this.winLength = geometry.getWinLength();
+        int words = (geometry.getBitCount() + 63) >>> 6;
+        this.crossBits = new long[words];
+        this.noughtBits = new long[words];
+        this.heights = new int[cols];
+    }
+
+    void load(Position position) {
+        Arrays.fill(crossBits, 0);
+        Arrays.fill(noughtBits, 0);
+        Arrays.fill(heights, 0);
+        moveCount = 0;
+        for (int col = 0; col < cols; col++) {
+            for (int row = rows - 1; row >= 0; row--) {
+                Seed content = position.getContent(row, col);
+                if (content == Seed.NO_SEED) {
+                    break;
+                }
+                set(content == Seed.CROSS ? crossBits : noughtBits, geometry.bitIndex(heights[col]++, col));
+                moveCount++;
+            }
+        }
+    }
+
+    void copyFrom(CompactBoard other) {
+        System.arraycopy(other.crossBits, 0, crossBits, 0, crossBits.length);
+        System.arraycopy(other.noughtBits, 0, noughtBits, 0, noughtBits.length);
+        System.arraycopy(other.heights, 0, heights, 0, heights.length);
+        moveCount = other.moveCount;
+    }
+
+    boolean canPlay(int col) {
+        return heights[col] < rows;
+    }
+
+    int getMoveCount() {
+        return moveCount;
+    }
+
+    boolean isFull() {
+        return moveCount == geometry.getSize();
+    }
+
+    /** Cross moves first, so the side to move follows from the move count. */
+    Seed getSideToMove() {
+        return (moveCount & 1) == 0 ? Seed.CROSS : Seed.NOUGHT;
+    }
+
+    /** Drops the side to move's disc into {@code col}; true when it completes a line. */
+    boolean play(int col) {
+        long[] bits = (moveCount & 1) == 0 ? crossBits : noughtBits;
+        int h = heights[col]++;
+        set(bits, geometry.bitIndex(h, col));
+        moveCount++;
+        for (int[] direction : DIRECTIONS) {
+            int count = 1 + countFrom(bits, col, h, direction[0], direction[1]);
+            if (direction[0] != 0) {
+                count += countFrom(bits, col, h, -direction[0], -direction[1]);
+            }
+            if (count >= winLength) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Discs of {@code bits} in a row from (col, h), not counting it, stepping by (dc, dh). */
+    private int countFrom(long[] bits, int col, int h, int dc, int dh) {
+        int count = 0;
+        int c = col + dc;
+        int r = h + dh;
+        while (count < winLength - 1 && c >= 0 && c < cols && r >= 0 && r < rows
+                && isSet(bits, geometry.bitIndex(r, c))) {
+            count++;
+            c += dc;
+            r += dh;
+        }
+        return count;
+    }
+
+    private static void set(long[] bits, int index) {
+        bits[index >>> 6] |= 1L << index;
+    }
+
+    private static boolean isSet(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+}
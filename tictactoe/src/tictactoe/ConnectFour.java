@@ -2,6 +2,9 @@ package tictactoe;
 
 import java.awt.*;
 import java.awt.event.*;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import javax.swing.*;
 
 public final class ConnectFour extends JPanel {
@@ -10,15 +13,33 @@ public final class ConnectFour extends JPanel {
     public static final Color COLOR_BG = Color.WHITE;
     public static final Color COLOR_BG_STATUS = new Color(216, 216, 216);
     public static final Font FONT_STATUS = new Font("OCR A Extended", Font.PLAIN, 14);
+    public static final Font FONT_ANALYSIS = new Font("Dialog", Font.BOLD, 11);
+    public static final int ANALYSIS_HEIGHT = 22;
+    private static final Color COLOR_LOSS = new Color(214, 64, 56);
+    private static final Color COLOR_EVEN = new Color(236, 200, 72);
+    private static final Color COLOR_WIN = new Color(64, 168, 88);
 
     private AnimationManager animationManager;
+    private GameSession session;
     private Board board;
-    private State currentState;
-    private Seed currentPlayer;
     private JLabel statusBar;
-    private AIPlayer aiPlayer;
+    private Engine aiPlayer;
     private boolean isAIEnabled = true;
     private boolean isAITurn = false;
+    private boolean showSearchStats = Boolean.getBoolean("connectfour.showStats");
+    // Strip analisis di atas kolom; -Dconnectfour.analysis=false mematikannya.
+    private AnalysisService analysisService;
+    private AnalysisService.Analysis analysis = AnalysisService.Analysis.EMPTY;
+    private int boardTop;
+    // Pencarian AI berjalan di sini agar EDT tetap menggambar; gameId memisahkan hasil yang sudah basi.
+    private final ExecutorService aiExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "ai-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile int gameId;
+    private boolean firstFramePainted;
+    private final GameRecordWriter gameRecords = GameRecordWriter.openDefault(); // -Dconnectfour.records
     private static ConnectFour instance;
 
     public ConnectFour() {
@@ -29,11 +50,32 @@ public final class ConnectFour extends JPanel {
     }
 
     private void initializeGame() {
-        board = new Board();
+        // AI bermain sebagai O; -Dconnectfour.rows/cols/connect mengatur ukuran papan
+        session = new GameSession(createEngine(Geometry.fromSystemProperties()));
+        board = session.getBoard();
+        aiPlayer = session.getEngine();
         animationManager = new AnimationManager();
-        aiPlayer = new AIPlayer(Seed.NOUGHT); // AI bermain sebagai O
+        if (Boolean.parseBoolean(System.getProperty("connectfour.analysis", "true"))) {
+            analysisService = new AnalysisService(board.getGeometry(), this::showAnalysis);
+            boardTop = ANALYSIS_HEIGHT;
+        }
         isAIEnabled = true; // Aktifkan AI secara default
-        SoundEffect.initGame();
+        // Gambar dan suara dimuat di latar belakang; papan digambar ulang setelah siap.
+        AssetLoader.loadAsync().thenRun(() -> SwingUtilities.invokeLater(() -> {
+            board.invalidateBackBuffer();
+            repaint();
+        }));
+    }
+
+    /** Minimax by default; -Dconnectfour.engine=mcts picks Monte Carlo tree search. */
+    private static Engine createEngine(Geometry geometry) {
+        if ("mcts".equalsIgnoreCase(System.getProperty("connectfour.engine"))) {
+            return new MctsPlayer(Seed.NOUGHT, geometry);
+        }
+        AIPlayer player = new AIPlayer(Seed.NOUGHT, geometry, new TranspositionTable());
+        player.setSolverMode(true); // AI bermain sempurna menjelang akhir bila posisi bisa dipecahkan tepat waktu
+        player.setSolverTableSize(1 << 20); // 16 MB, bukan bawaan 64 MB
+        return player;
     }
 
     private void initializeGUI() {
@@ -53,58 +95,91 @@ public final class ConnectFour extends JPanel {
     }
 
     private void handleMouseClick(int mouseX, int mouseY) {
-        if (!isAITurn && currentState == State.PLAYING) {
+        if (!isAITurn && session.getState() == State.PLAYING) {
             int col = mouseX / Cell.SIZE;
             
-            if (isValidColumn(col) && !animationManager.isAnimating()) {
+            if (isValidColumn(col)) {
                 makeMove(col);
                 
                 // Jika permainan masih berlanjut, giliran AI
-                if (currentState == State.PLAYING && isAIEnabled) {
-                    isAITurn = true;
-                    Timer timer = new Timer(500, e -> {
-                        makeAIMove();
-                        ((Timer)e.getSource()).stop();
-                    });
-                    timer.setRepeats(false);
-                    timer.start();
+                if (session.getState() == State.PLAYING && isAIEnabled) {
+                    requestAIMove();
                 }
             }
-        } else if (currentState != State.PLAYING) {
+        } else if (session.getState() != State.PLAYING) {
             newGame();
         }
         repaint();
     }
 
     private boolean isValidColumn(int col) {
-        return col >= 0 && col < Board.COLS && board.getLowestEmptyRow(col) != -1;
+        return session.isValidMove(col);
     }
 
     private void makeMove(int col) {
-        int targetRow = board.getLowestEmptyRow(col);
-        if (targetRow != -1 && !animationManager.isAnimating()) {
-            animationManager.startAnimation(targetRow, col, currentPlayer);
-            currentState = board.makeMove(currentPlayer, col);
-            playSoundEffect();
-            if (currentState == State.PLAYING) {
-                currentPlayer = (currentPlayer == Seed.CROSS) ? Seed.NOUGHT : Seed.CROSS;
+        if (session.isValidMove(col)) {
+            animationManager.startAnimation(board.getLowestEmptyRow(col), col, session.getCurrentPlayer());
+            State state = session.makeMove(col);
+            if (state != State.PLAYING && gameRecords != null) {
+                gameRecords.append(board, state);
             }
+            playSoundEffect();
+            restartAnalysis();
+        }
+    }
+
+    /** Analyses the new position while a human is to move; the AI's own turn gets the CPU to itself. */
+    private void restartAnalysis() {
+        if (analysisService == null) {
+            return;
+        }
+        boolean humanToMove = session.getState() == State.PLAYING && (!isAIEnabled || !session.isAITurn());
+        if (humanToMove) {
+            analysisService.analyze(board, session.getCurrentPlayer());
+        } else {
+            analysisService.stop();
         }
     }
 
-    private void makeAIMove() {
-        if (currentState == State.PLAYING && isAITurn && !animationManager.isAnimating()) {
-            int aiCol = aiPlayer.getBestMove(board); // Dapatkan kolom terbaik dari AI
-            if (isValidColumn(aiCol)) {
-                makeMove(aiCol);
+    private void showAnalysis(AnalysisService.Analysis analysis) {
+        this.analysis = analysis;
+        repaint(0, 0, board.getCanvasWidth(), ANALYSIS_HEIGHT);
+    }
+
+    /** Searches a snapshot of the board on the AI thread and posts the answer back to the EDT. */
+    private void requestAIMove() {
+        isAITurn = true;
+        int id = gameId;
+        // Diambil sekarang, agar newGame() yang membatalkan sebelum pencarian dimulai tetap menghentikannya.
+        int token = aiPlayer.getSearchToken();
+        Position snapshot = Position.fromBoard(board);
+        aiExecutor.execute(() -> {
+            if (id != gameId) {
+                return; // permainan dimulai ulang sebelum pencarian ini berjalan
             }
-            isAITurn = false; // Setelah AI bergerak, set kembali giliran pemain
+            int aiCol = aiPlayer.getBestMove(snapshot, token); // Dapatkan kolom terbaik dari AI
+            SwingUtilities.invokeLater(() -> applyAIMove(id, aiCol));
+        });
+    }
+
+    private void applyAIMove(int id, int aiCol) {
+        if (id != gameId || session.getState() != State.PLAYING || !isAITurn) {
+            return;
         }
+        if (isValidColumn(aiCol)) {
+            makeMove(aiCol);
+        }
+        isAITurn = false; // Setelah AI bergerak, set kembali giliran pemain
+        if (session.getState() == State.PLAYING) {
+            // Pikirkan balasan selagi pemain menimbang langkahnya; pencarian berikutnya menghentikannya.
+            aiPlayer.startPondering(Position.fromBoard(board));
+        }
+        repaint();
     }
-    
+
 
     private void playSoundEffect() {
-        if (currentState == State.PLAYING) {
+        if (session.getState() == State.PLAYING) {
             SoundEffect.EAT_FOOD.play();
         } else {
             SoundEffect.DIE.play();
@@ -123,35 +198,116 @@ public final class ConnectFour extends JPanel {
     }
 
     private void setupPanel() {
-        setPreferredSize(new Dimension(Board.CANVAS_WIDTH, Board.CANVAS_HEIGHT + 30));
+        setPreferredSize(new Dimension(board.getCanvasWidth(), boardTop + board.getCanvasHeight() + 30));
         setBorder(BorderFactory.createLineBorder(COLOR_BG_STATUS, 2, false));
     }
 
     public void newGame() {
-        board.newGame();
-        currentPlayer = Seed.CROSS;
-        currentState = State.PLAYING;
+        gameId++;
+        aiPlayer.cancel();
+        aiExecutor.execute(aiPlayer::newGame); // berjalan setelah pencarian yang dibatalkan selesai
+        session.newGame();
+        animationManager.clear();
         isAITurn = false;
+        if (analysisService != null) {
+            analysisService.newGame();
+            restartAnalysis();
+        }
+    }
+
+    /** Shows the last AI search statistics in the status bar (-Dconnectfour.showStats=true). */
+    public void setShowSearchStats(boolean showSearchStats) {
+        this.showSearchStats = showSearchStats;
+        repaint();
     }
 
     public static ConnectFour getInstance() {
         return instance;
     }
 
+    Board getBoard() {
+        return board;
+    }
+
+    /** Y coordinate of the board's top edge, below the analysis strip. */
+    int getBoardTop() {
+        return boardTop;
+    }
+
     @Override
     public void paintComponent(Graphics g) {
         super.paintComponent(g);
         setBackground(COLOR_BG);
+        if (analysisService != null) {
+            paintAnalysis(g);
+        }
+        g.translate(0, boardTop);
         board.paint(g);
         animationManager.paint(g);
+        g.translate(0, -boardTop);
         updateStatusBar();
+        if (!firstFramePainted) {
+            firstFramePainted = true;
+            recordFirstFrame();
+        }
+    }
+
+    /** Commits a {@link StartupEvent} with the time since JVM start, taken from the runtime MXBean. */
+    private static void recordFirstFrame() {
+        StartupEvent event = new StartupEvent();
+        if (event.shouldCommit()) {
+            event.sinceJvmStart = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+            event.commit();
+        }
+    }
+
+    /**
+     * One cell per column, red for moves that lose, through yellow, to green
+     * for moves that win, labelled with the score (or W/L when forced) and
+     * the depth it was found at. Unscored columns stay grey.
+     */
+    private void paintAnalysis(Graphics g) {
+        g.setColor(COLOR_BG_STATUS);
+        g.fillRect(0, 0, board.getCanvasWidth(), ANALYSIS_HEIGHT);
+        g.setFont(FONT_ANALYSIS);
+        FontMetrics metrics = g.getFontMetrics();
+        for (int col = 0; col < board.getCols(); col++) {
+            int depth = analysis.getDepth(col);
+            if (depth < 0) {
+                continue;
+            }
+            int score = analysis.getScore(col);
+            String label;
+            if (AnalysisService.Analysis.isDecisive(score)) {
+                label = (score > 0 ? "W" : "L") + " d" + depth;
+            } else {
+                label = (score > 0 ? "+" : "") + score + " d" + depth;
+            }
+            int x = col * Cell.SIZE;
+            g.setColor(heatColor(score));
+            g.fillRect(x + 2, 2, Cell.SIZE - 4, ANALYSIS_HEIGHT - 4);
+            g.setColor(Color.BLACK);
+            g.drawString(label, x + (Cell.SIZE - metrics.stringWidth(label)) / 2,
+                    (ANALYSIS_HEIGHT + metrics.getAscent() - metrics.getDescent()) / 2);
+        }
+    }
+
+    private static Color heatColor(int score) {
+        double t = Math.max(-1, Math.min(1, score / 100.0));
+        Color to = t < 0 ? COLOR_LOSS : COLOR_WIN;
+        double a = Math.abs(t);
+        return new Color((int) (COLOR_EVEN.getRed() + (to.getRed() - COLOR_EVEN.getRed()) * a),
+                (int) (COLOR_EVEN.getGreen() + (to.getGreen() - COLOR_EVEN.getGreen()) * a),
+                (int) (COLOR_EVEN.getBlue() + (to.getBlue() - COLOR_EVEN.getBlue()) * a));
     }
 
     private void updateStatusBar() {
-        switch (currentState) {
+        switch (session.getState()) {
             case PLAYING -> {
                 statusBar.setForeground(Color.BLACK);
-                statusBar.setText((currentPlayer == Seed.CROSS) ? "X's Turn" : "O's Turn");
+                String turn = (session.getCurrentPlayer() == Seed.CROSS) ? "X's Turn" : "O's Turn";
+                SearchStats stats = aiPlayer.getLastSearchStats();
+                statusBar.setText(showSearchStats && stats != SearchStats.EMPTY ? turn + "   AI: " + stats : turn);
             }
             case DRAW -> {
                 statusBar.setForeground(Color.RED);
@@ -0,0 +1,60 @@
+package tictactoe;
+
+/**
+ * A computer player: picks a column for its {@link Seed} on boards of one
+ * {@link Geometry}. {@link AIPlayer} searches with alpha-beta minimax,
+ * {@link MctsPlayer} with Monte Carlo tree search.
+ *
+ * Engines are not thread-safe except for {@link #cancel()} and
+ * {@link #getSearchToken()}, which may be called from any thread.
+ */
+public interface Engine {
+    Seed getSeed();
+
+    Geometry getGeometry();
+
+    /** Best column for this engine's seed, which must be the side to move in {@code position}. */
+    default int getBestMove(Position position) {
+        return getBestMove(position, getSearchToken());
+    }
+
+    /**
+     * As {@link #getBestMove(Position)}, but stops at once if {@link #cancel()}
+     * was called after {@code searchToken} was taken, even before the search
+     * started.
+     */
+    int getBestMove(Position position, int searchToken);
+
+    default int getBestMove(Board board) {
+        return getBestMove(Position.fromBoard(board));
+    }
+
+    /** Wall-clock limit per move in milliseconds; zero or less means no limit. */
+    void setTimeBudget(long millis);
+
+    /**
+     * Stops the running search and any search whose token was taken before
+     * this call; they return the best move found so far.
+     */
+    void cancel();
+
+    /** Token for a search requested now; see {@link #getBestMove(Position, int)}. */
+    int getSearchToken();
+
+    /** Forgets everything learned during the previous game. */
+    void newGame();
+
+    /** Work done by the most recent {@link #getBestMove} call. */
+    SearchStats getLastSearchStats();
+
+    /**
+     * Starts thinking about the opponent's replies from {@code position}
+     * (opponent to move) in the background. Engines that cannot ponder
+     * ignore it.
+     */
+    default void startPondering(Position position) {
+    }
+
+    default void stopPondering() {
+    }
+}
@@ -0,0 +1,101 @@
+package tictactoe;
+
+/**
+ * Keeps the heuristic board score up to date as moves are made and undone.
+ *
+ * For every winning line ("window") it stores how many discs each player has
+ * in it, and it keeps a running score from each player's point of view. A
+ * move only touches the windows through its own cell, so updating and reading
+ * the score costs a handful of window updates instead of a scan of the whole
+ * board, however large the board is. The same counts tell when a window has
+ * been completed, which is how {@link Position} detects wins.
+ */
+public class Evaluator {
+    private final int winLength;
+    private final int stride;
+    // scoreWindow(own, other) for every pair of counts, at [own * stride + other].
+    private final int[] windowScores;
+    private final int[][] windowsByBit;
+    private final byte[] crossCounts;
+    private final byte[] noughtCounts;
+    private int crossScore;
+    private int noughtScore;
+    private int crossLines;
+    private int noughtLines;
+
+    public Evaluator() {
+        this(Geometry.STANDARD);
+    }
+
+    public Evaluator(Geometry geometry) {
+        this.winLength = geometry.getWinLength();
+        this.stride = winLength + 1;
+        this.windowScores = new int[stride * stride];
+        for (int own = 0; own <= winLength; own++) {
+            for (int other = 0; other <= winLength; other++) {
+                windowScores[own * stride + other] = scoreWindow(own, other, winLength);
+            }
+        }
+        this.windowsByBit = geometry.getWindowsByBit();
+        this.crossCounts = new byte[geometry.getWindows().length];
+        this.noughtCounts = new byte[geometry.getWindows().length];
+    }
+
+    public void copyFrom(Evaluator other) {
+        System.arraycopy(other.crossCounts, 0, crossCounts, 0, crossCounts.length);
+        System.arraycopy(other.noughtCounts, 0, noughtCounts, 0, noughtCounts.length);
+        crossScore = other.crossScore;
+        noughtScore = other.noughtScore;
+        crossLines = other.crossLines;
+        noughtLines = other.noughtLines;
+    }
+
+    public void play(Seed player, int bitIndex) {
+        update(player, bitIndex, 1);
+    }
+
+    public void undo(Seed player, int bitIndex) {
+        update(player, bitIndex, -1);
+    }
+
+    /** Score of the position as seen by {@code player}. */
+    public int getScore(Seed player) {
+        return player == Seed.CROSS ? crossScore : noughtScore;
+    }
+
+    /** Whether {@code player} has completed at least one line. */
+    public boolean hasLine(Seed player) {
+        return (player == Seed.CROSS ? crossLines : noughtLines) > 0;
+    }
+
+    private void update(Seed player, int bitIndex, int delta) {
+        byte[] counts = player == Seed.CROSS ? crossCounts : noughtCounts;
+        for (int window : windowsByBit[bitIndex]) {
+            int cross = crossCounts[window];
+            int nought = noughtCounts[window];
+            crossScore -= windowScores[cross * stride + nought];
+            noughtScore -= windowScores[nought * stride + cross];
+            counts[window] += delta;
+            int own = counts[window];
+            if (own == winLength || own - delta == winLength) {
+                if (player == Seed.CROSS) {
+                    crossLines += delta;
+                } else {
+                    noughtLines += delta;
+                }
+            }
+            cross = crossCounts[window];
+            nought = noughtCounts[window];
+            crossScore += windowScores[cross * stride + nought];
+            noughtScore += windowScores[nought * stride + cross];
+        }
+    }
+
+    /** Value of one window for the player owning {@code own} of its discs. */
+    static int scoreWindow(int own, int other, int winLength) {
+        if (own == winLength) return 100;
+        if (other == winLength) return -100;
+        if (own > 0 && other > 0) return 0;
+        return own * own * own;
+    }
+}
@@ -0,0 +1,141 @@
+package tictactoe;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load generator for {@link GameServer}: opens many sessions that play random
+ * legal moves as fast as the server answers, then reports games played,
+ * moves per second (overall and per core) and the latency of each move
+ * round trip, which includes the AI's reply.
+ *
+ * Usage: {@code java tictactoe.GameLoadClient [host] [port] [sessions] [seconds]}
+ */
+public class GameLoadClient {
+    public static void main(String[] args) throws InterruptedException {
+        String host = args.length > 0 ? args[0] : "127.0.0.1";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : GameServer.DEFAULT_PORT;
+        int sessions = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 30;
+
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        ConcurrentLinkedQueue<long[]> latencies = new ConcurrentLinkedQueue<>();
+        AtomicLong games = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(sessions);
+
+        ExecutorService clients = GameServer.newSessionExecutor("load-client");
+        long start = System.nanoTime();
+        for (int i = 0; i < sessions; i++) {
+            long seed = i;
+            clients.execute(() -> {
+                try {
+                    latencies.add(runClient(host, port, seed, deadline, games));
+                } catch (IOException | RuntimeException e) {
+                    errors.incrementAndGet();
+                    System.err.println("Session failed: " + e);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        clients.shutdown();
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        report(List.copyOf(latencies), sessions, games.get(), errors.get(), elapsed);
+    }
+
+    /** Plays games until the deadline and returns the latency of every move in nanoseconds. */
+    private static long[] runClient(String host, int port, long seed, long deadline, AtomicLong games)
+            throws IOException {
+        Random random = new Random(seed);
+        long[] latencies = new long[256];
+        int count = 0;
+        try (Socket socket = new Socket(host, port);
+                BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                PrintWriter out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII), true)) {
+            socket.setTcpNoDelay(true);
+            String[] hello = in.readLine().split(" ");
+            Geometry geometry = Geometry.of(Integer.parseInt(hello[1]), Integer.parseInt(hello[2]),
+                    Integer.parseInt(hello[3]));
+            Board board = new Board(geometry);
+
+            while (System.nanoTime() < deadline) {
+                board.newGame();
+                expectOk(send(out, in, "NEW X"));
+                State state = State.PLAYING;
+                while (state == State.PLAYING && System.nanoTime() < deadline) {
+                    int col;
+                    do {
+                        col = random.nextInt(geometry.getCols());
+                    } while (board.getLowestEmptyRow(col) == -1);
+                    long moveStart = System.nanoTime();
+                    String[] reply = expectOk(send(out, in, "MOVE " + col));
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = System.nanoTime() - moveStart;
+                    board.makeMove(Seed.CROSS, col);
+                    if (!reply[1].equals("-")) {
+                        board.makeMove(Seed.NOUGHT, Integer.parseInt(reply[1]));
+                    }
+                    state = State.valueOf(reply[2]);
+                }
+                if (state != State.PLAYING) {
+                    games.incrementAndGet();
+                }
+            }
+            send(out, in, "QUIT");
+        }
+        return Arrays.copyOf(latencies, count);
+    }
+
+    private static String send(PrintWriter out, BufferedReader in, String command) throws IOException {
+        out.println(command);
+        String reply = in.readLine();
+        if (reply == null) {
+            throw new IOException("Server closed the connection");
+        }
+        return reply;
+    }
+
+    private static String[] expectOk(String reply) {
+        if (!reply.startsWith("OK ")) {
+            throw new IllegalStateException("Unexpected reply: " + reply);
+        }
+        return reply.split(" ");
+    }
+
+    private static void report(List<long[]> perSession, int sessions, long games, long errors, double elapsed) {
+        long[] all = perSession.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        int cores = Runtime.getRuntime().availableProcessors();
+        double movesPerSecond = all.length / elapsed;
+        System.out.printf("%d sessions for %.1f s: %d games, %d moves, %d failed sessions%n",
+                sessions, elapsed, games, all.length, errors);
+        System.out.printf("  %.0f moves/s, %.0f moves/s per core (%d cores)%n",
+                movesPerSecond, movesPerSecond / cores, cores);
+        System.out.printf("  move latency p50 %.2f ms, p95 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                percentile(all, 50), percentile(all, 95), percentile(all, 99), percentile(all, 100));
+    }
+
+    private static double percentile(long[] sorted, int percent) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percent / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
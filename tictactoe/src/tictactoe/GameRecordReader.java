@@ -0,0 +1,133 @@
+package tictactoe;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Read-only view of the games written by {@link GameRecordWriter}. Every
+ * segment is memory-mapped and indexed once, so {@link #stream()} can hand
+ * out games to a parallel stream without copying them onto the heap.
+ */
+public class GameRecordReader {
+    private final MappedByteBuffer[] buffers;
+    private final Geometry[] geometries;
+    // Game i lives in segment segmentOf[i] at byte offsetOf[i].
+    private int[] segmentOf = new int[1024];
+    private int[] offsetOf = new int[1024];
+    private int gameCount;
+
+    private GameRecordReader(List<MappedByteBuffer> buffers, List<Geometry> geometries) {
+        this.buffers = buffers.toArray(new MappedByteBuffer[0]);
+        this.geometries = geometries.toArray(new Geometry[0]);
+        for (int s = 0; s < this.buffers.length; s++) {
+            index(s);
+        }
+        segmentOf = Arrays.copyOf(segmentOf, gameCount);
+        offsetOf = Arrays.copyOf(offsetOf, gameCount);
+    }
+
+    /** Maps every segment in {@code directory}; a segment still being written is read up to its last whole game. */
+    public static GameRecordReader open(Path directory) throws IOException {
+        List<MappedByteBuffer> buffers = new ArrayList<>();
+        List<Geometry> geometries = new ArrayList<>();
+        for (Path segment : GameRecordWriter.listSegments(directory)) {
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                if (buffer.capacity() < GameRecordWriter.HEADER_SIZE
+                        || buffer.getInt(0) != GameRecordWriter.MAGIC || buffer.getInt(4) != GameRecordWriter.VERSION) {
+                    throw new IOException("Not a game record segment: " + segment);
+                }
+                buffers.add(buffer);
+                geometries.add(Geometry.of(buffer.get(8) & 0xFF, buffer.get(9) & 0xFF, buffer.get(10) & 0xFF));
+            }
+        }
+        return new GameRecordReader(buffers, geometries);
+    }
+
+    public int size() {
+        return gameCount;
+    }
+
+    public GameRecord get(int index) {
+        int segment = segmentOf[index];
+        return new GameRecord(buffers[segment], offsetOf[index], geometries[segment]);
+    }
+
+    /** All games in the order they were played; call {@code parallel()} to spread the work over cores. */
+    public Stream<GameRecord> stream() {
+        return IntStream.range(0, gameCount).mapToObj(this::get);
+    }
+
+    private void index(int segment) {
+        MappedByteBuffer buffer = buffers[segment];
+        int limit = buffer.capacity();
+        int offset = GameRecordWriter.HEADER_SIZE;
+        while (offset + 2 <= limit) {
+            int moves = buffer.get(offset) & 0xFF;
+            int length = 2 + (moves + 1) / 2;
+            if (offset + length > limit) {
+                break; // a game still being written
+            }
+            if (gameCount == segmentOf.length) {
+                segmentOf = Arrays.copyOf(segmentOf, gameCount * 2);
+                offsetOf = Arrays.copyOf(offsetOf, gameCount * 2);
+            }
+            segmentOf[gameCount] = segment;
+            offsetOf[gameCount] = offset;
+            gameCount++;
+            offset += length;
+        }
+    }
+
+    /** One recorded game, read straight from the mapped segment. */
+    public static final class GameRecord {
+        private static final State[] STATES = State.values();
+
+        private final MappedByteBuffer buffer;
+        private final int offset;
+        private final Geometry geometry;
+
+        private GameRecord(MappedByteBuffer buffer, int offset, Geometry geometry) {
+            this.buffer = buffer;
+            this.offset = offset;
+            this.geometry = geometry;
+        }
+
+        public Geometry getGeometry() {
+            return geometry;
+        }
+
+        public int getMoveCount() {
+            return buffer.get(offset) & 0xFF;
+        }
+
+        public State getResult() {
+            return STATES[buffer.get(offset + 1)];
+        }
+
+        /** Column of move {@code index}; cross plays the even moves. */
+        public int getMove(int index) {
+            int packed = buffer.get(offset + 2 + index / 2) & 0xFF;
+            return (index & 1) == 0 ? packed >>> 4 : packed & 0x0F;
+        }
+
+        /** Plays the game back onto a fresh board. */
+        public Board replay() {
+            Board board = new Board(geometry);
+            Seed player = Seed.CROSS;
+            for (int i = 0; i < getMoveCount(); i++) {
+                board.makeMove(player, getMove(i));
+                player = (player == Seed.CROSS) ? Seed.NOUGHT : Seed.CROSS;
+            }
+            return board;
+        }
+    }
+}
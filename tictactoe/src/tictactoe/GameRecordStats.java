@@ -0,0 +1,105 @@
+package tictactoe;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Offline analysis of recorded games: results, the most frequent openings
+ * and, for each column, how the games went when the first player opened
+ * there. All passes are parallel streams over the mapped segments.
+ *
+ * Usage: {@code java tictactoe.GameRecordStats [dir] [openingPlies] [replayIndex]}
+ */
+public class GameRecordStats {
+    private static final int TOP_OPENINGS = 10;
+
+    public static void main(String[] args) throws IOException {
+        String dir = args.length > 0 ? args[0] : GameRecordWriter.DEFAULT_DIRECTORY;
+        int openingPlies = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+
+        long start = System.nanoTime();
+        GameRecordReader reader = GameRecordReader.open(Paths.get(dir));
+        System.out.printf("Indexed %,d games in %.0f ms%n", reader.size(), (System.nanoTime() - start) / 1e6);
+
+        if (args.length > 2) {
+            GameRecordReader.GameRecord record = reader.get(Integer.parseInt(args[2]));
+            System.out.println("Game " + args[2] + " (" + record.getGeometry() + "), " + record.getResult() + ":");
+            System.out.println(GameServer.render(record.replay()).replace('/', '\n'));
+            return;
+        }
+
+        start = System.nanoTime();
+        Map<State, Long> results = reader.stream().parallel()
+                .collect(Collectors.groupingByConcurrent(GameRecordReader.GameRecord::getResult, Collectors.counting()));
+        double averageLength = reader.stream().parallel()
+                .mapToInt(GameRecordReader.GameRecord::getMoveCount).average().orElse(0);
+        ConcurrentMap<String, Long> openings = reader.stream().parallel()
+                .filter(record -> record.getMoveCount() >= openingPlies)
+                .collect(Collectors.groupingByConcurrent(record -> opening(record, openingPlies), Collectors.counting()));
+        ConcurrentMap<Integer, Map<State, Long>> byFirstColumn = reader.stream().parallel()
+                .filter(record -> record.getMoveCount() > 0)
+                .collect(Collectors.groupingByConcurrent(record -> record.getMove(0),
+                        Collectors.groupingBy(GameRecordReader.GameRecord::getResult,
+                                () -> new EnumMap<>(State.class), Collectors.counting())));
+        double seconds = (System.nanoTime() - start) / 1e9;
+        checkTotals(reader, results, byFirstColumn);
+
+        System.out.printf("Results: X won %,d, O won %,d, drawn %,d; %.1f moves per game%n",
+                results.getOrDefault(State.CROSS_WON, 0L), results.getOrDefault(State.NOUGHT_WON, 0L),
+                results.getOrDefault(State.DRAW, 0L), averageLength);
+
+        System.out.println("Most played openings (" + openingPlies + " plies, columns from 0):");
+        openings.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(TOP_OPENINGS)
+                .forEach(e -> System.out.printf("  %s  %,d%n", e.getKey(), e.getValue()));
+
+        System.out.println("First move column: games, X win rate, draw rate");
+        byFirstColumn.keySet().stream().sorted(Comparator.comparing(Function.identity())).forEach(col -> {
+            Map<State, Long> counts = byFirstColumn.get(col);
+            long games = counts.values().stream().mapToLong(Long::longValue).sum();
+            System.out.printf("  %2d  %,10d  %5.1f%%  %5.1f%%%n", col, games,
+                    100.0 * counts.getOrDefault(State.CROSS_WON, 0L) / games,
+                    100.0 * counts.getOrDefault(State.DRAW, 0L) / games);
+        });
+        System.out.printf("Analysed in %.2f s%n", seconds);
+    }
+
+    /**
+     * Compares the parallel results with a plain loop over every game, so a
+     * lost update in the concurrent collectors shows up as an error instead
+     * of as slightly wrong statistics.
+     */
+    static void checkTotals(GameRecordReader reader, Map<State, Long> results,
+            Map<Integer, Map<State, Long>> byFirstColumn) {
+        Map<State, Long> expected = new EnumMap<>(State.class);
+        Map<State, Long> expectedWithMoves = new EnumMap<>(State.class);
+        for (int i = 0; i < reader.size(); i++) {
+            GameRecordReader.GameRecord record = reader.get(i);
+            expected.merge(record.getResult(), 1L, Long::sum);
+            if (record.getMoveCount() > 0) {
+                expectedWithMoves.merge(record.getResult(), 1L, Long::sum);
+            }
+        }
+        Map<State, Long> byColumnTotals = new EnumMap<>(State.class);
+        byFirstColumn.values().forEach(counts -> counts.forEach((state, n) -> byColumnTotals.merge(state, n, Long::sum)));
+        if (!expected.equals(results) || !expectedWithMoves.equals(byColumnTotals)) {
+            throw new IllegalStateException("Parallel totals " + results + " and " + byColumnTotals
+                    + " differ from a sequential count " + expected);
+        }
+    }
+
+    private static String opening(GameRecordReader.GameRecord record, int plies) {
+        StringBuilder sb = new StringBuilder(plies);
+        for (int i = 0; i < plies; i++) {
+            sb.append(Integer.toHexString(record.getMove(i)));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,190 @@
+package tictactoe;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends finished games to a directory of segment files that
+ * {@link GameRecordReader} can map and stream.
+ *
+ * A segment starts with a 12-byte header: magic, version, then the rows,
+ * columns and win length of every game in it. Each game is one byte with the
+ * number of moves, one byte with the final {@link State}, and the columns
+ * packed two per byte, first move in the high nibble. A typical game takes a
+ * dozen bytes. A new segment starts when the current one passes
+ * {@link #SEGMENT_SIZE} or a game of another geometry arrives.
+ *
+ * Writes happen on a background thread, so {@link #append} only encodes the
+ * game and returns.
+ */
+public class GameRecordWriter {
+    public static final int MAGIC = 0x43344752; // "C4GR"
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 12;
+    public static final long SEGMENT_SIZE = 64L << 20;
+    public static final String DEFAULT_DIRECTORY = "games";
+    static final String SEGMENT_PREFIX = "games-";
+    static final String SEGMENT_SUFFIX = ".c4r";
+
+    private final Path directory;
+    private final long segmentSize;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "game-records");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Only touched on the writer thread.
+    private FileChannel channel;
+    private Geometry segmentGeometry;
+    private int segmentNumber = -1;
+
+    public GameRecordWriter(Path directory) {
+        this(directory, SEGMENT_SIZE);
+    }
+
+    /** Writer that starts a new segment once the current one reaches {@code segmentSize} bytes. */
+    GameRecordWriter(Path directory, long segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Writer for {@code -Dconnectfour.records=<dir>}, or {@value #DEFAULT_DIRECTORY}
+     * in the working directory; null when the property is set to an empty string.
+     */
+    public static GameRecordWriter openDefault() {
+        String dir = System.getProperty("connectfour.records", DEFAULT_DIRECTORY);
+        return dir.isEmpty() ? null : new GameRecordWriter(Paths.get(dir));
+    }
+
+    /** Records the moves of {@code board}, which ended in {@code result}. */
+    public void append(Board board, State result) {
+        ByteBuffer record = encode(board, result);
+        Geometry geometry = board.getGeometry();
+        writer.execute(() -> {
+            try {
+                write(geometry, record);
+            } catch (IOException e) {
+                System.err.println("Error writing game record: " + e.getMessage());
+            }
+        });
+    }
+
+    /** Waits for queued records to reach the file and closes it. */
+    public void close() throws InterruptedException {
+        writer.execute(this::closeSegment);
+        writer.shutdown();
+        writer.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    static ByteBuffer encode(Board board, State result) {
+        int moves = board.getMoveCount();
+        ByteBuffer record = ByteBuffer.allocate(2 + (moves + 1) / 2);
+        record.put((byte) moves);
+        record.put((byte) result.ordinal());
+        for (int i = 0; i < moves; i += 2) {
+            int high = board.getMove(i);
+            int low = i + 1 < moves ? board.getMove(i + 1) : 0;
+            record.put((byte) (high << 4 | low));
+        }
+        record.flip();
+        return record;
+    }
+
+    private void write(Geometry geometry, ByteBuffer record) throws IOException {
+        if (channel == null || geometry != segmentGeometry || channel.size() >= segmentSize) {
+            openSegment(geometry);
+        }
+        while (record.hasRemaining()) {
+            channel.write(record);
+        }
+    }
+
+    private void openSegment(Geometry geometry) throws IOException {
+        closeSegment();
+        Files.createDirectories(directory);
+        if (segmentNumber < 0) {
+            List<Path> existing = listSegments(directory);
+            segmentNumber = existing.isEmpty() ? 0 : segmentNumberOf(existing.get(existing.size() - 1));
+            Path last = segmentPath(segmentNumber);
+            if (Files.exists(last) && canAppend(last, geometry)) {
+                channel = FileChannel.open(last, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                segmentGeometry = geometry;
+                return;
+            }
+            if (Files.exists(last)) {
+                segmentNumber++;
+            }
+        } else {
+            segmentNumber++;
+        }
+        channel = FileChannel.open(segmentPath(segmentNumber), StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION);
+        header.put((byte) geometry.getRows()).put((byte) geometry.getCols()).put((byte) geometry.getWinLength());
+        header.put((byte) 0).flip();
+        channel.write(header);
+        segmentGeometry = geometry;
+    }
+
+    private boolean canAppend(Path segment, Geometry geometry) throws IOException {
+        if (Files.size(segment) < HEADER_SIZE || Files.size(segment) >= segmentSize) {
+            return false;
+        }
+        try (FileChannel existing = FileChannel.open(segment, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            existing.read(header, 0);
+            header.flip();
+            return header.getInt() == MAGIC && header.getInt() == VERSION
+                    && (header.get() & 0xFF) == geometry.getRows() && (header.get() & 0xFF) == geometry.getCols()
+                    && (header.get() & 0xFF) == geometry.getWinLength();
+        }
+    }
+
+    private void closeSegment() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                System.err.println("Error closing game records: " + e.getMessage());
+            }
+            channel = null;
+        }
+    }
+
+    private Path segmentPath(int number) {
+        return directory.resolve(String.format("%s%05d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+    }
+
+    private static int segmentNumberOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /** Segment files of {@code directory} in the order they were written. */
+    static List<Path> listSegments(Path directory) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory,
+                SEGMENT_PREFIX + "[0-9][0-9][0-9][0-9][0-9]" + SEGMENT_SUFFIX)) {
+            stream.forEach(segments::add);
+        }
+        Collections.sort(segments);
+        return segments;
+    }
+}
@@ -0,0 +1,235 @@
+package tictactoe;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Headless server hosting many human-vs-AI {@link GameSession}s over a
+ * line-based TCP protocol on the loopback interface.
+ *
+ * Each connection is one session served by its own thread: a virtual thread
+ * when the JVM has them (Java 21+), a pooled platform thread otherwise. AI
+ * searches run on a fixed pool shared by all sessions, so the CPU-heavy work
+ * is bounded however many players are connected.
+ *
+ * Protocol: the server greets with {@code HELLO <rows> <cols> <connect>},
+ * then answers each command with one line.
+ * <pre>
+ * NEW [X|O]   start a game as X (moves first, the default) or O  -> OK &lt;aiCol|-&gt; &lt;state&gt;
+ * MOVE &lt;col&gt;  play a column; the AI answers at once            -> OK &lt;aiCol|-&gt; &lt;state&gt;
+ * BOARD       rows top to bottom, '.' empty, separated by '/'   -> OK &lt;rows&gt;
+ * QUIT        close the session                                 -> BYE
+ * </pre>
+ * Errors are reported as {@code ERR <message>} and leave the session as it was.
+ * Finished games are logged through {@link GameRecordWriter#openDefault()}.
+ *
+ * Usage: {@code java tictactoe.GameServer [port] [aiThreads] [moveMillis]}
+ */
+public class GameServer {
+    public static final int DEFAULT_PORT = 4004;
+    private static final int TABLE_SIZE = 1 << 16; // per session; 16 bytes per entry
+
+    private final Geometry geometry;
+    private final ExecutorService aiPool;
+    private final long moveMillis;
+    private final AtomicInteger activeSessions = new AtomicInteger();
+    private final GameRecordWriter gameRecords = GameRecordWriter.openDefault(); // -Dconnectfour.records
+
+    public GameServer(Geometry geometry, int aiThreads, long moveMillis) {
+        this.geometry = geometry;
+        this.moveMillis = moveMillis;
+        this.aiPool = Executors.newFixedThreadPool(aiThreads, r -> {
+            Thread thread = new Thread(r, "ai-search");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int aiThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long moveMillis = args.length > 2 ? Long.parseLong(args[2]) : 100;
+        new GameServer(Geometry.fromSystemProperties(), aiThreads, moveMillis).serve(port);
+    }
+
+    /** Accepts connections on the loopback interface until the process exits. */
+    public void serve(int port) throws IOException {
+        try (ServerSocket server = new ServerSocket(port, 1024, InetAddress.getLoopbackAddress())) {
+            System.out.println("Serving " + geometry + " on port " + server.getLocalPort()
+                    + " (" + (hasVirtualThreads() ? "virtual" : "platform") + " session threads)");
+            serve(server);
+        }
+    }
+
+    /** Accepts connections on {@code server} until it is closed. */
+    void serve(ServerSocket server) throws IOException {
+        ExecutorService sessions = newSessionExecutor("session");
+        while (true) {
+            Socket socket = server.accept();
+            sessions.execute(() -> runSession(socket));
+        }
+    }
+
+    /**
+     * One thread per task: virtual threads when the JVM supports them. The
+     * build targets Java 17, so the Java 21 factory is looked up reflectively.
+     */
+    static ExecutorService newSessionExecutor(String name) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(r -> {
+                Thread thread = new Thread(r, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    static boolean hasVirtualThreads() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /** Number of clients connected right now. */
+    public int getActiveSessions() {
+        return activeSessions.get();
+    }
+
+    private void runSession(Socket socket) {
+        activeSessions.incrementAndGet();
+        Connection connection = new Connection();
+        try (socket;
+                BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                PrintWriter out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII), true)) {
+            socket.setTcpNoDelay(true);
+            out.println("HELLO " + geometry.getRows() + " " + geometry.getCols() + " " + geometry.getWinLength());
+            String line;
+            while ((line = in.readLine()) != null) {
+                String reply = connection.handle(line.trim());
+                out.println(reply);
+                if (reply.equals("BYE")) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            // the client went away; nothing to clean up beyond the socket
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            activeSessions.decrementAndGet();
+        }
+    }
+
+    /** Rows from top to bottom, '.' for empty cells, separated by '/'. */
+    static String render(Board board) {
+        StringBuilder sb = new StringBuilder();
+        for (int row = 0; row < board.getRows(); row++) {
+            if (row > 0) {
+                sb.append('/');
+            }
+            for (int col = 0; col < board.getCols(); col++) {
+                Seed content = board.getCell(row, col).getContent();
+                sb.append(content == Seed.NO_SEED ? '.' : content.getDisplayName().charAt(0));
+            }
+        }
+        return sb.toString();
+    }
+
+    /** State of one client connection: its session and the AI's table, kept across games. */
+    private final class Connection {
+        private final TranspositionTable table = new TranspositionTable(TABLE_SIZE,
+                TranspositionTable.ReplacementPolicy.DEPTH_PREFERRED);
+        private GameSession session = newSession(Seed.NOUGHT);
+
+        private GameSession newSession(Seed aiSeed) {
+            GameSession created = new GameSession(geometry, aiSeed, table);
+            created.getEngine().setTimeBudget(moveMillis);
+            return created;
+        }
+
+        /** Replies to one command; any failure becomes an {@code ERR} reply and the connection stays open. */
+        private String handle(String line) throws InterruptedException {
+            try {
+                return execute(line.split("\\s+"));
+            } catch (RuntimeException e) {
+                return "ERR " + (e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            }
+        }
+
+        private String execute(String[] parts) throws InterruptedException {
+            switch (parts[0].toUpperCase()) {
+                case "NEW" -> {
+                    Seed aiSeed = (parts.length > 1 && parts[1].equalsIgnoreCase("O")) ? Seed.CROSS : Seed.NOUGHT;
+                    if (session.getEngine().getSeed() != aiSeed) {
+                        session = newSession(aiSeed);
+                    }
+                    session.newGame();
+                    session.getEngine().newGame();
+                    return "OK " + playAI() + " " + session.getState();
+                }
+                case "MOVE" -> {
+                    int col;
+                    try {
+                        col = Integer.parseInt(parts[1]);
+                    } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                        return "ERR usage: MOVE <col>";
+                    }
+                    if (session.isAITurn() || !session.isValidMove(col)) {
+                        return "ERR illegal move";
+                    }
+                    makeMove(col);
+                    return "OK " + playAI() + " " + session.getState();
+                }
+                case "BOARD" -> {
+                    return "OK " + render(session.getBoard());
+                }
+                case "QUIT" -> {
+                    return "BYE";
+                }
+                default -> {
+                    return "ERR unknown command";
+                }
+            }
+        }
+
+        /** Plays the AI's move on the shared pool if it is the AI's turn; returns the column or "-". */
+        private String playAI() throws InterruptedException {
+            if (!session.isAITurn()) {
+                return "-";
+            }
+            int col;
+            try {
+                col = aiPool.submit(session::chooseAIMove).get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("AI search failed", e.getCause());
+            }
+            makeMove(col);
+            return Integer.toString(col);
+        }
+
+        private void makeMove(int col) {
+            State state = session.makeMove(col);
+            if (state != State.PLAYING && gameRecords != null) {
+                gameRecords.append(session.getBoard(), state);
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package tictactoe;
+
+/**
+ * One human-vs-AI game without any UI: the board, whose turn it is, the game
+ * state and the AI opponent. {@link ConnectFour} drives one of these from
+ * Swing; {@link GameServer} hosts many of them at once.
+ *
+ * A session is not thread-safe; its owner makes moves from one thread at a
+ * time (the AI search may run elsewhere on a {@link Position} snapshot).
+ */
+public class GameSession {
+    private final Board board;
+    private final Engine engine;
+    private Seed currentPlayer;
+    private State state;
+
+    /** A session against the minimax {@link AIPlayer}. */
+    public GameSession(Geometry geometry, Seed aiSeed, TranspositionTable transpositionTable) {
+        this(new AIPlayer(aiSeed, geometry, transpositionTable));
+    }
+
+    /** A session against {@code engine}, on a board of the engine's geometry. */
+    public GameSession(Engine engine) {
+        this.board = new Board(engine.getGeometry());
+        this.engine = engine;
+        newGame();
+    }
+
+    /** Clears the board; the engine's own memory is reset separately with {@link Engine#newGame()}. */
+    public void newGame() {
+        board.newGame();
+        currentPlayer = Seed.CROSS;
+        state = State.PLAYING;
+    }
+
+    public boolean isValidMove(int col) {
+        return state == State.PLAYING && col >= 0 && col < board.getCols() && board.getLowestEmptyRow(col) != -1;
+    }
+
+    /**
+     * Drops the current player's disc into {@code col} and passes the turn on.
+     * Returns the new game state.
+     */
+    public State makeMove(int col) {
+        if (!isValidMove(col)) {
+            throw new IllegalArgumentException("Illegal move: column " + col);
+        }
+        state = board.makeMove(currentPlayer, col);
+        if (state == State.PLAYING) {
+            currentPlayer = (currentPlayer == Seed.CROSS) ? Seed.NOUGHT : Seed.CROSS;
+        }
+        return state;
+    }
+
+    /** Whether it is the AI's turn in a game still being played. */
+    public boolean isAITurn() {
+        return state == State.PLAYING && currentPlayer == engine.getSeed();
+    }
+
+    /** Searches the AI's move on the calling thread without playing it. */
+    public int chooseAIMove() {
+        return engine.getBestMove(board);
+    }
+
+    public Board getBoard() {
+        return board;
+    }
+
+    public Engine getEngine() {
+        return engine;
+    }
+
+    public Seed getCurrentPlayer() {
+        return currentPlayer;
+    }
+
+    public State getState() {
+        return state;
+    }
+}
@@ -0,0 +1,197 @@
+package tictactoe;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Board dimensions and win length, with the lookup tables the engine derives
+ * from them. Tables are built once per geometry and shared by every
+ * {@link Position}, {@link Evaluator} and {@link AIPlayer} that uses it.
+ *
+ * Cells are numbered as bits of the {@link Position} layout: column
+ * {@code col} takes {@code rows + 1} bits, bottom row first, so the disc at
+ * height {@code h} is bit {@code col * height + h}.
+ */
+public final class Geometry {
+    public static final int MAX_COLS = 16;    // columns must fit the 4-bit move field of the table
+    public static final int MAX_CELLS = 255;  // depths must fit the 8-bit depth field of the table
+
+    /** The classic 6 x 7 board with four in a row. */
+    public static final Geometry STANDARD = new Geometry(Board.ROWS, Board.COLS, 4);
+    // One instance per shape, so players, positions and record segments can compare geometries with ==.
+    private static final ConcurrentMap<Integer, Geometry> INSTANCES = new ConcurrentHashMap<>();
+
+    private final int rows;
+    private final int cols;
+    private final int winLength;
+    private final int height;
+    private final int size;
+    private final int[][] windows;
+    private final int[][] windowsByBit;
+    private final int[] centerOrder;
+    private final long[][] zobrist;
+
+    private Geometry(int rows, int cols, int winLength) {
+        this.rows = rows;
+        this.cols = cols;
+        this.winLength = winLength;
+        this.height = rows + 1;
+        this.size = rows * cols;
+        this.windows = buildWindows();
+        this.windowsByBit = buildWindowsByBit();
+        this.centerOrder = buildCenterOrder();
+        this.zobrist = buildZobristKeys();
+    }
+
+    /** The geometry of the given shape; equal shapes always give the same instance. */
+    public static Geometry of(int rows, int cols, int winLength) {
+        if (rows == Board.ROWS && cols == Board.COLS && winLength == 4) {
+            return STANDARD;
+        }
+        if (rows < 1 || cols < 1 || cols > MAX_COLS || rows * cols > MAX_CELLS) {
+            throw new IllegalArgumentException("Unsupported board size: " + rows + " x " + cols);
+        }
+        if (winLength < 2 || winLength > Math.max(rows, cols)) {
+            throw new IllegalArgumentException("Unsupported win length: " + winLength);
+        }
+        return INSTANCES.computeIfAbsent(rows << 16 | cols << 8 | winLength,
+                key -> new Geometry(rows, cols, winLength));
+    }
+
+    /**
+     * Geometry from {@code -Dconnectfour.rows}, {@code -Dconnectfour.cols} and
+     * {@code -Dconnectfour.connect}; unset values keep the standard ones.
+     */
+    public static Geometry fromSystemProperties() {
+        return of(Integer.getInteger("connectfour.rows", Board.ROWS),
+                Integer.getInteger("connectfour.cols", Board.COLS),
+                Integer.getInteger("connectfour.connect", 4));
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getWinLength() {
+        return winLength;
+    }
+
+    /** Bits per column in the {@link Position} layout: the rows plus a sentinel. */
+    public int getHeight() {
+        return height;
+    }
+
+    /** Number of cells, which is also the longest possible game. */
+    public int getSize() {
+        return size;
+    }
+
+    /** Bits used by the {@link Position} layout. */
+    public int getBitCount() {
+        return cols * height;
+    }
+
+    /** Bit index of the disc at {@code h} cells above the bottom of {@code col}. */
+    public int bitIndex(int h, int col) {
+        return col * height + h;
+    }
+
+    /** Every winning line, as the bit indices of its cells. */
+    int[][] getWindows() {
+        return windows;
+    }
+
+    /** Indices into {@link #getWindows()} of the lines through each bit. */
+    int[][] getWindowsByBit() {
+        return windowsByBit;
+    }
+
+    /** Columns from the centre outwards, the usual move order. */
+    int[] getCenterOrder() {
+        return centerOrder;
+    }
+
+    /** Zobrist keys of {@code player}'s disc on each bit. */
+    long[] getZobristKeys(Seed player) {
+        return zobrist[player.ordinal()];
+    }
+
+    @Override
+    public String toString() {
+        return rows + "x" + cols + " connect-" + winLength;
+    }
+
+    private int[][] buildWindows() {
+        int[][] result = new int[size * 4][];
+        int count = 0;
+        int[][] directions = {{0, 1}, {1, 0}, {1, 1}, {-1, 1}};
+        for (int[] dir : directions) {
+            for (int row = 0; row < rows; row++) {
+                for (int col = 0; col < cols; col++) {
+                    int endRow = row + (winLength - 1) * dir[0];
+                    int endCol = col + (winLength - 1) * dir[1];
+                    if (endRow < 0 || endRow >= rows || endCol >= cols) {
+                        continue;
+                    }
+                    int[] cells = new int[winLength];
+                    for (int i = 0; i < winLength; i++) {
+                        cells[i] = bitIndex(rows - 1 - (row + i * dir[0]), col + i * dir[1]);
+                    }
+                    result[count++] = cells;
+                }
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private int[][] buildWindowsByBit() {
+        int[][] byBit = new int[getBitCount()][];
+        int[] counts = new int[byBit.length];
+        for (int[] window : windows) {
+            for (int bit : window) {
+                counts[bit]++;
+            }
+        }
+        for (int bit = 0; bit < byBit.length; bit++) {
+            byBit[bit] = new int[counts[bit]];
+            counts[bit] = 0;
+        }
+        for (int w = 0; w < windows.length; w++) {
+            for (int bit : windows[w]) {
+                byBit[bit][counts[bit]++] = w;
+            }
+        }
+        return byBit;
+    }
+
+    private int[] buildCenterOrder() {
+        int[] order = new int[cols];
+        int count = 0;
+        for (int i = 0; count < cols; i++) {
+            int offset = (i + 1) / 2;
+            int col = cols / 2 + (i % 2 == 1 ? -offset : offset);
+            if (col >= 0 && col < cols) {
+                order[count++] = col;
+            }
+        }
+        return order;
+    }
+
+    private long[][] buildZobristKeys() {
+        // Fixed seed so hashes are stable across runs.
+        SplittableRandom random = new SplittableRandom(0x5EEDC4L);
+        long[][] keys = new long[2][getBitCount()];
+        for (long[] playerKeys : keys) {
+            for (int i = 0; i < playerKeys.length; i++) {
+                playerKeys[i] = random.nextLong();
+            }
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,423 @@
+package tictactoe;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Monte Carlo tree search {@link Engine}: grows a game tree by UCT
+ * selection and scores new leaves with random playouts to the end of the
+ * game. It needs no evaluation function and no search depth, so it keeps
+ * playing sensibly on large boards where alpha-beta cannot look far.
+ *
+ * All threads grow one shared tree. A thread going down the tree adds a
+ * visit to every node on its path before it knows the result (a "virtual
+ * loss"), which steers other threads to different branches until the
+ * result is added on the way back. Nodes live in an arena of primitive
+ * arrays, indexed by node number, with the children of a node allocated
+ * next to each other; nothing is allocated per node or per playout.
+ * Playouts run on a {@link CompactBoard}.
+ */
+public class MctsPlayer implements Engine {
+    public static final int DEFAULT_CAPACITY = 1 << 21; // nodes; 15 bytes each
+    private static final double EXPLORATION = 1.0;
+    private static final int CHECK_INTERVAL = 63;
+    private static final int EXPANDING = -1; // firstChild while a thread expands the node, or for good if the arena is full
+    private static final byte WIN = 1;       // outcome: the move into the node completed a line
+    private static final byte DRAW = 2;      // outcome: the move into the node filled the board
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final Seed aiSeed;
+    private final Geometry geometry;
+    private final int[] centerOrder;
+    private long timeBudgetMillis = AIPlayer.DEFAULT_TIME_BUDGET_MILLIS;
+    private long playoutBudget;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private ExecutorService pool;
+    private Worker[] workers;
+    private final AtomicInteger cancelGeneration = new AtomicInteger();
+    private int searchToken;
+    private volatile boolean stopped;
+    private long deadline;
+    private volatile SearchStats lastStats = SearchStats.EMPTY;
+
+    // The arena. Node 0 is the root; a node's children are the childCount nodes from firstChild.
+    private final int capacity;
+    private final int[] visits;     // finished playouts plus those still on their way back
+    private final int[] wins;       // half points for the side that moved into the node: 2 a win, 1 a draw
+    private final int[] firstChild; // 0 until expanded
+    private final byte[] childCount;
+    private final byte[] moves;
+    private final byte[] outcomes;
+    private final AtomicInteger nextFree = new AtomicInteger();
+    private final CompactBoard rootBoard;
+
+    public MctsPlayer(Seed seed, Geometry geometry) {
+        this(seed, geometry, DEFAULT_CAPACITY);
+    }
+
+    public MctsPlayer(Seed seed, Geometry geometry, int capacity) {
+        this.aiSeed = seed;
+        this.geometry = geometry;
+        this.centerOrder = geometry.getCenterOrder();
+        this.capacity = capacity;
+        this.visits = new int[capacity];
+        this.wins = new int[capacity];
+        this.firstChild = new int[capacity];
+        this.childCount = new byte[capacity];
+        this.moves = new byte[capacity];
+        this.outcomes = new byte[capacity];
+        this.rootBoard = new CompactBoard(geometry);
+    }
+
+    @Override
+    public Seed getSeed() {
+        return aiSeed;
+    }
+
+    @Override
+    public Geometry getGeometry() {
+        return geometry;
+    }
+
+    @Override
+    public void setTimeBudget(long millis) {
+        this.timeBudgetMillis = millis;
+    }
+
+    /** Playout limit per move; zero or less means no limit. */
+    public void setPlayoutBudget(long playouts) {
+        this.playoutBudget = playouts;
+    }
+
+    /** Threads growing the tree; defaults to one per core. */
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1");
+        }
+        if (threads != this.threads && pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+        this.threads = threads;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    @Override
+    public void cancel() {
+        cancelGeneration.incrementAndGet();
+    }
+
+    @Override
+    public int getSearchToken() {
+        return cancelGeneration.get();
+    }
+
+    /** The tree is rebuilt for every move, so there is nothing to forget. */
+    @Override
+    public void newGame() {
+    }
+
+    @Override
+    public SearchStats getLastSearchStats() {
+        return lastStats;
+    }
+
+    @Override
+    public int getBestMove(Position position, int searchToken) {
+        if (position.getGeometry() != geometry) {
+            throw new IllegalArgumentException("Position is " + position.getGeometry() + ", player is " + geometry);
+        }
+        long start = System.nanoTime();
+        this.searchToken = searchToken;
+        stopped = false;
+        deadline = timeBudgetMillis > 0 ? start + timeBudgetMillis * 1_000_000 : Long.MAX_VALUE;
+        rootBoard.load(position);
+        nextFree.set(1);
+        clearNode(0);
+        expand(0, rootBoard);
+
+        int forced = forcedMove();
+        if (forced >= 0) {
+            lastStats = new SearchStats(1, 0, 0, 0, 0, System.nanoTime() - start, 0, 0, false);
+            return forced;
+        }
+        if (workers == null || workers.length != threads) {
+            workers = new Worker[threads];
+            for (int i = 0; i < threads; i++) {
+                workers[i] = new Worker(i);
+            }
+        }
+        runWorkers();
+
+        long playouts = 0;
+        int depth = 0;
+        for (Worker worker : workers) {
+            playouts += worker.playouts;
+            depth = Math.max(depth, worker.maxDepth);
+        }
+        // Playouts stand in for nodes, and the deepest selection path for the depth.
+        lastStats = new SearchStats(playouts, playouts, 0, 0, depth, System.nanoTime() - start, 0, 0, false);
+        return moves[bestChild()];
+    }
+
+    /** Visits of each root move in the last search, by column; zero for columns that were full. */
+    int[] getRootVisits() {
+        int[] byColumn = new int[geometry.getCols()];
+        int first = firstChild[0];
+        for (int child = first; child < first + childCount[0]; child++) {
+            byColumn[moves[child]] = visits[child];
+        }
+        return byColumn;
+    }
+
+    /** The only legal move, or one that wins on the spot; -1 when there is a real choice. */
+    private int forcedMove() {
+        int first = firstChild[0];
+        if (childCount[0] == 1) {
+            return moves[first];
+        }
+        CompactBoard board = new CompactBoard(geometry);
+        for (int child = first; child < first + childCount[0]; child++) {
+            board.copyFrom(rootBoard);
+            if (board.play(moves[child])) {
+                return moves[child];
+            }
+        }
+        return -1;
+    }
+
+    private void runWorkers() {
+        if (threads == 1) {
+            workers[0].run();
+            return;
+        }
+        List<Callable<Void>> tasks = new ArrayList<>(threads);
+        for (Worker worker : workers) {
+            tasks.add(() -> {
+                worker.run();
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> future : getPool().invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Search thread failed", e.getCause());
+        }
+    }
+
+    private synchronized ExecutorService getPool() {
+        if (pool == null) {
+            pool = Executors.newFixedThreadPool(threads, r -> {
+                Thread thread = new Thread(r, "mcts-search");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return pool;
+    }
+
+    /** A winning move if there is one, otherwise the most visited child of the root. */
+    private int bestChild() {
+        int first = firstChild[0];
+        int best = first;
+        for (int child = first; child < first + childCount[0]; child++) {
+            if (outcomes[child] == WIN) {
+                return child;
+            }
+            if (visits[child] > visits[best]) {
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    private void clearNode(int node) {
+        visits[node] = 0;
+        wins[node] = 0;
+        firstChild[node] = 0;
+        childCount[node] = 0;
+        outcomes[node] = 0;
+    }
+
+    /**
+     * Gives {@code node} one child per legal move of {@code board}, centre
+     * columns first. Only one thread expands a node; the others, and every
+     * thread once the arena is full, carry on from it as a leaf.
+     */
+    private boolean expand(int node, CompactBoard board) {
+        if (!INTS.compareAndSet(firstChild, node, 0, EXPANDING)) {
+            return false;
+        }
+        int count = 0;
+        for (int col : centerOrder) {
+            if (board.canPlay(col)) {
+                count++;
+            }
+        }
+        int first = nextFree.getAndAdd(count);
+        if (first + count > capacity) {
+            return false; // stays EXPANDING: a leaf for the rest of this search
+        }
+        int child = first;
+        for (int col : centerOrder) {
+            if (board.canPlay(col)) {
+                clearNode(child);
+                moves[child++] = (byte) col;
+            }
+        }
+        childCount[node] = (byte) count;
+        INTS.setRelease(firstChild, node, first);
+        return true;
+    }
+
+    /** One search thread: its own board, path and random numbers. */
+    private final class Worker implements Runnable {
+        private final CompactBoard board = new CompactBoard(geometry);
+        private final int[] path = new int[geometry.getSize() + 1];
+        private final int[] open = new int[geometry.getCols()];
+        private long random;
+        private long playouts;
+        private int maxDepth;
+
+        private Worker(int index) {
+            this.random = 0x9E3779B97F4A7C15L * (index + 1);
+        }
+
+        @Override
+        public void run() {
+            playouts = 0;
+            maxDepth = 0;
+            while (!stopped) {
+                iterate();
+                if ((++playouts & CHECK_INTERVAL) == 0 && outOfBudget()) {
+                    stopped = true;
+                }
+            }
+        }
+
+        private boolean outOfBudget() {
+            if (cancelGeneration.get() != searchToken || System.nanoTime() >= deadline) {
+                return true;
+            }
+            if (playoutBudget > 0) {
+                long total = 0;
+                for (Worker worker : workers) {
+                    total += worker.playouts;
+                }
+                return total >= playoutBudget;
+            }
+            return false;
+        }
+
+        /** Select down the tree, expand, play out, and add the result along the path. */
+        private void iterate() {
+            board.copyFrom(rootBoard);
+            int node = 0;
+            int length = 0;
+            path[length++] = node;
+            INTS.getAndAdd(visits, node, 1);
+            Seed winner = null;
+
+            while (winner == null) {
+                int first = (int) INTS.getAcquire(firstChild, node);
+                if (first <= 0 && !(visits[node] > 1 && expand(node, board))) {
+                    break;
+                }
+                node = select(node, (int) INTS.getAcquire(firstChild, node));
+                INTS.getAndAdd(visits, node, 1); // virtual loss until the result comes back
+                path[length++] = node;
+                Seed mover = board.getSideToMove();
+                if (outcomes[node] == WIN || board.play(moves[node])) {
+                    outcomes[node] = WIN;
+                    winner = mover;
+                } else if (outcomes[node] == DRAW || board.isFull()) {
+                    outcomes[node] = DRAW;
+                    winner = Seed.NO_SEED;
+                }
+            }
+            if (winner == null) {
+                winner = playout();
+            }
+            maxDepth = Math.max(maxDepth, length - 1);
+
+            // path[d] was reached by the root's side to move when d is odd, by the other side when even
+            Seed rootMover = rootBoard.getSideToMove();
+            Seed other = (rootMover == Seed.CROSS) ? Seed.NOUGHT : Seed.CROSS;
+            for (int d = 0; d < length; d++) {
+                Seed mover = (d & 1) == 1 ? rootMover : other;
+                int reward = winner == Seed.NO_SEED ? 1 : (winner == mover ? 2 : 0);
+                if (reward > 0) {
+                    INTS.getAndAdd(wins, path[d], reward);
+                }
+            }
+        }
+
+        /** UCT child of {@code parent}; an unvisited child first, a winning one at once. */
+        private int select(int parent, int first) {
+            double logVisits = Math.log(Math.max(1, visits[parent]));
+            int best = first;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (int child = first; child < first + childCount[parent]; child++) {
+                if (outcomes[child] == WIN) {
+                    return child;
+                }
+                int n = visits[child];
+                if (n == 0) {
+                    return child;
+                }
+                double value = wins[child] / (2.0 * n) + EXPLORATION * Math.sqrt(logVisits / n);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = child;
+                }
+            }
+            return best;
+        }
+
+        /** Random moves to the end of the game; returns the winner, or NO_SEED for a draw. */
+        private Seed playout() {
+            int count = 0;
+            for (int col = 0; col < open.length; col++) {
+                if (board.canPlay(col)) {
+                    open[count++] = col;
+                }
+            }
+            while (true) {
+                int index = nextInt(count);
+                int col = open[index];
+                Seed mover = board.getSideToMove();
+                if (board.play(col)) {
+                    return mover;
+                }
+                if (board.isFull()) {
+                    return Seed.NO_SEED;
+                }
+                if (!board.canPlay(col)) {
+                    open[index] = open[--count];
+                }
+            }
+        }
+
+        private int nextInt(int bound) {
+            random ^= random << 13;
+            random ^= random >>> 7;
+            random ^= random << 17;
+            return (int) (((random >>> 32) * bound) >>> 32);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package tictactoe;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only opening book backed by a memory-mapped file written by
+ * {@link OpeningBookGenerator}.
+ *
+ * The file is a 12-byte header (magic, version, entry count) followed by
+ * fixed-size entries sorted by {@link Position#getKey()}: the key, the score
+ * of the best move, the best column and the depth it was searched to.
+ * Lookups binary-search the mapping directly, so the book is never copied
+ * onto the heap.
+ */
+public class OpeningBook {
+    public static final int MAGIC = 0x43344248; // "C4BH"
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 12;
+    public static final int ENTRY_SIZE = 12;
+    public static final String DEFAULT_FILE = "opening-book.bin";
+    public static final int MISS = -1;
+
+    private final MappedByteBuffer buffer;
+    private final int entryCount;
+
+    private OpeningBook(MappedByteBuffer buffer) throws IOException {
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not an opening book file");
+        }
+        this.buffer = buffer;
+        this.entryCount = buffer.getInt(8);
+        if ((long) HEADER_SIZE + (long) entryCount * ENTRY_SIZE > buffer.capacity()) {
+            throw new IOException("Opening book file is truncated");
+        }
+    }
+
+    public static OpeningBook open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new OpeningBook(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * The book at {@code -Dconnectfour.book=<file>}, or {@value #DEFAULT_FILE} in
+     * the working directory. Mapped the first time it is asked for; null when
+     * there is no readable book.
+     */
+    public static OpeningBook getDefault() {
+        return DefaultHolder.BOOK;
+    }
+
+    /** Best column stored for {@code position}, or {@link #MISS}. */
+    public int lookup(Position position) {
+        int index = find(position.getKey());
+        return index < 0 ? MISS : buffer.get(offset(index) + 10);
+    }
+
+    /** Score of the stored move from the mover's side; only valid after a hit. */
+    public int lookupScore(Position position) {
+        int index = find(position.getKey());
+        return index < 0 ? 0 : buffer.getShort(offset(index) + 8);
+    }
+
+    public int size() {
+        return entryCount;
+    }
+
+    private int find(long key) {
+        int low = 0;
+        int high = entryCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midKey = buffer.getLong(offset(mid));
+            if (midKey < key) {
+                low = mid + 1;
+            } else if (midKey > key) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private static int offset(int index) {
+        return HEADER_SIZE + index * ENTRY_SIZE;
+    }
+
+    private static final class DefaultHolder {
+        private static final OpeningBook BOOK = load();
+
+        private static OpeningBook load() {
+            Path file = Paths.get(System.getProperty("connectfour.book", DEFAULT_FILE));
+            if (!Files.isReadable(file)) {
+                return null;
+            }
+            try {
+                return open(file);
+            } catch (IOException e) {
+                System.err.println("Error loading opening book: " + file);
+                return null;
+            }
+        }
+    }
+}
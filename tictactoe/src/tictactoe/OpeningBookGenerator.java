@@ -0,0 +1,90 @@
+package tictactoe;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Offline tool that searches every position of the first plies deeply and
+ * writes the results as an {@link OpeningBook} file.
+ *
+ * Usage: {@code java tictactoe.OpeningBookGenerator [plies] [depth] [file]}
+ */
+public class OpeningBookGenerator {
+    public static void main(String[] args) throws IOException {
+        int plies = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int depth = args.length > 1 ? Integer.parseInt(args[1]) : 12;
+        Path file = Paths.get(args.length > 2 ? args[2] : OpeningBook.DEFAULT_FILE);
+
+        long start = System.nanoTime();
+        Map<Long, long[]> entries = generate(plies, depth);
+        write(file, entries);
+        System.out.printf("Wrote %d positions (%d plies, depth %d) to %s in %.1f s%n",
+                entries.size(), plies, depth, file, (System.nanoTime() - start) / 1e9);
+    }
+
+    /** Book entries by position key: column, score and depth of the best move. */
+    static Map<Long, long[]> generate(int plies, int depth) {
+        Map<Long, long[]> entries = new TreeMap<>();
+        generate(new Position(), new Position(), Seed.CROSS, plies,
+                createPlayer(Seed.CROSS, depth), createPlayer(Seed.NOUGHT, depth), entries);
+        return entries;
+    }
+
+    private static AIPlayer createPlayer(Seed seed, int depth) {
+        AIPlayer player = new AIPlayer(seed);
+        player.setTimeBudget(0);
+        player.setMaxDepth(depth);
+        player.setThreads(Runtime.getRuntime().availableProcessors());
+        player.setOpeningBook(null);
+        return player;
+    }
+
+    /**
+     * Searches {@code position} and stores the result for it and, with the
+     * column flipped, for {@code mirror}, its left-right mirror image, so the
+     * book answers both the same way and each pair is searched only once.
+     */
+    private static void generate(Position position, Position mirror, Seed toMove, int pliesLeft,
+            AIPlayer cross, AIPlayer nought, Map<Long, long[]> entries) {
+        if (pliesLeft < 0 || position.checkWin() != State.PLAYING || entries.containsKey(position.getKey())) {
+            return;
+        }
+        AIPlayer player = (toMove == Seed.CROSS) ? cross : nought;
+        int col = player.getBestMove(position);
+        entries.put(position.getKey(), new long[] {col, player.getLastScore(), player.getLastDepth()});
+        entries.putIfAbsent(mirror.getKey(),
+                new long[] {position.mirrorColumn(col), player.getLastScore(), player.getLastDepth()});
+
+        Seed next = (toMove == Seed.CROSS) ? Seed.NOUGHT : Seed.CROSS;
+        for (int c = 0; c < Board.COLS; c++) {
+            if (position.canPlay(c)) {
+                position.makeMove(toMove, c);
+                mirror.makeMove(toMove, position.mirrorColumn(c));
+                generate(position, mirror, next, pliesLeft - 1, cross, nought, entries);
+                mirror.undoMove(position.mirrorColumn(c));
+                position.undoMove(c);
+            }
+        }
+    }
+
+    static void write(Path file, Map<Long, long[]> entries) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(OpeningBook.MAGIC);
+            out.writeInt(OpeningBook.VERSION);
+            out.writeInt(entries.size());
+            for (Map.Entry<Long, long[]> entry : entries.entrySet()) {
+                long[] value = entry.getValue();
+                out.writeLong(entry.getKey());
+                out.writeShort((int) value[1]);
+                out.writeByte((int) value[0]);
+                out.writeByte((int) value[2]);
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package tictactoe;
+
+/**
+ * Times a fixed-depth search on a few positions with 1, 2, 4 and 8 threads,
+ * checks that every thread count picks the same move, and prints the speedup.
+ *
+ * Usage: {@code java tictactoe.ParallelSearchBenchmark [depth]}
+ */
+public class ParallelSearchBenchmark {
+    private static final String[] POSITIONS = {
+        "",
+        "3323",
+        "33224415",
+        "3344225166012",
+    };
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8};
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        double baseline = 0;
+
+        System.out.printf("Fixed depth %d on %d positions, %d cores%n",
+                depth, POSITIONS.length, Runtime.getRuntime().availableProcessors());
+        searchAll(depth, 1, new StringBuilder()); // warm up the JIT
+        for (int threads : THREAD_COUNTS) {
+            StringBuilder moves = new StringBuilder();
+            long start = System.nanoTime();
+            searchAll(depth, threads, moves);
+            double millis = (System.nanoTime() - start) / 1e6;
+            if (threads == 1) {
+                baseline = millis;
+            }
+            System.out.printf("%d thread(s): %8.1f ms  speedup %.2fx  moves %s%n",
+                    threads, millis, baseline / millis, moves);
+        }
+    }
+
+    private static void searchAll(int depth, int threads, StringBuilder moves) {
+        for (String moveList : POSITIONS) {
+            Position position = playMoves(moveList);
+            Seed toMove = position.getMoveCount() % 2 == 0 ? Seed.CROSS : Seed.NOUGHT;
+            AIPlayer player = new AIPlayer(toMove);
+            player.setTimeBudget(0);
+            player.setMaxDepth(depth);
+            player.setThreads(threads);
+            player.setOpeningBook(null); // time the search, not a book hit on the empty board
+            moves.append(player.getBestMove(position));
+        }
+    }
+
+    private static Position playMoves(String moveList) {
+        Position position = new Position();
+        Seed player = Seed.CROSS;
+        for (char c : moveList.toCharArray()) {
+            position.makeMove(player, c - '0');
+            player = (player == Seed.CROSS) ? Seed.NOUGHT : Seed.CROSS;
+        }
+        return position;
+    }
+}
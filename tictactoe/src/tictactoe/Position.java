@@ -0,0 +1,234 @@
+package tictactoe;
+
+/**
+ * Compact bitboard form of a {@link Board} used by the AI search.
+ *
+ * Every column takes {@code rows + 1} bits, bottom row first, with the extra
+ * bit left empty as a sentinel so that shifted masks never wrap into the next
+ * column. Bit {@code col * height + h} is the disc at height {@code h}, which
+ * is row {@code rows - 1 - h} on the Swing board. The bitsets take as many
+ * 64-bit words as the {@link Geometry} needs, so the standard board is a
+ * single word.
+ */
+public class Position {
+    private final Geometry geometry;
+    private final int rows;
+    private final int cols;
+    private final int height;
+    private final long bottomMask;
+    private final long[] crossKeys;
+    private final long[] noughtKeys;
+
+    private final long[] crossBits;
+    private final long[] noughtBits;
+    private final int[] heights;
+    private int moveCount;
+    private long hash;
+    private long mirrorHash; // hash of the left-right mirror image
+    private final Evaluator evaluator;
+
+    public Position() {
+        this(Geometry.STANDARD);
+    }
+
+    public Position(Geometry geometry) {
+        this.geometry = geometry;
+        this.rows = geometry.getRows();
+        this.cols = geometry.getCols();
+        this.height = geometry.getHeight();
+        int words = (geometry.getBitCount() + 63) >>> 6;
+        this.crossBits = new long[words];
+        this.noughtBits = new long[words];
+        this.heights = new int[geometry.getCols()];
+        this.evaluator = new Evaluator(geometry);
+        this.crossKeys = geometry.getZobristKeys(Seed.CROSS);
+        this.noughtKeys = geometry.getZobristKeys(Seed.NOUGHT);
+        long mask = 0;
+        if (words == 1) {
+            for (int col = 0; col < geometry.getCols(); col++) {
+                mask |= 1L << geometry.bitIndex(0, col);
+            }
+        }
+        this.bottomMask = mask;
+    }
+
+    public Position(Position other) {
+        this(other.geometry);
+        copyFrom(other);
+    }
+
+    public void copyFrom(Position other) {
+        if (other.geometry != geometry) {
+            throw new IllegalArgumentException("Positions have different geometries");
+        }
+        System.arraycopy(other.crossBits, 0, this.crossBits, 0, crossBits.length);
+        System.arraycopy(other.noughtBits, 0, this.noughtBits, 0, noughtBits.length);
+        System.arraycopy(other.heights, 0, this.heights, 0, heights.length);
+        this.moveCount = other.moveCount;
+        this.hash = other.hash;
+        this.mirrorHash = other.mirrorHash;
+        this.evaluator.copyFrom(other.evaluator);
+    }
+
+    public static Position fromBoard(Board board) {
+        Geometry geometry = board.getGeometry();
+        Position position = new Position(geometry);
+        for (int col = 0; col < geometry.getCols(); col++) {
+            for (int row = geometry.getRows() - 1; row >= 0; row--) {
+                Seed content = board.getCell(row, col).getContent();
+                if (content == Seed.NO_SEED) {
+                    break;
+                }
+                position.makeMove(content, col);
+            }
+        }
+        return position;
+    }
+
+    public Board toBoard() {
+        Board board = new Board(geometry);
+        copyTo(board);
+        return board;
+    }
+
+    public void copyTo(Board board) {
+        board.newGame();
+        for (int col = 0; col < heights.length; col++) {
+            for (int row = rows - 1; row >= rows - heights[col]; row--) {
+                board.makeMove(getContent(row, col), col);
+            }
+        }
+    }
+
+    public Geometry getGeometry() {
+        return geometry;
+    }
+
+    public boolean canPlay(int col) {
+        return heights[col] < rows;
+    }
+
+    public int getLowestEmptyRow(int col) {
+        return canPlay(col) ? rows - 1 - heights[col] : -1;
+    }
+
+    public Seed getContent(int row, int col) {
+        int index = geometry.bitIndex(rows - 1 - row, col);
+        if (isSet(crossBits, index)) return Seed.CROSS;
+        if (isSet(noughtBits, index)) return Seed.NOUGHT;
+        return Seed.NO_SEED;
+    }
+
+    public void makeMove(Seed player, int col) {
+        int index = col * height + heights[col]++;
+        int mirror = index + (cols - 1 - 2 * col) * height;
+        if (player == Seed.CROSS) {
+            crossBits[index >>> 6] |= 1L << index;
+            hash ^= crossKeys[index];
+            mirrorHash ^= crossKeys[mirror];
+        } else {
+            noughtBits[index >>> 6] |= 1L << index;
+            hash ^= noughtKeys[index];
+            mirrorHash ^= noughtKeys[mirror];
+        }
+        evaluator.play(player, index);
+        moveCount++;
+    }
+
+    public void undoMove(int col) {
+        int index = col * height + --heights[col];
+        int mirror = index + (cols - 1 - 2 * col) * height;
+        Seed player;
+        if (isSet(crossBits, index)) {
+            player = Seed.CROSS;
+            crossBits[index >>> 6] &= ~(1L << index);
+            hash ^= crossKeys[index];
+            mirrorHash ^= crossKeys[mirror];
+        } else {
+            player = Seed.NOUGHT;
+            noughtBits[index >>> 6] &= ~(1L << index);
+            hash ^= noughtKeys[index];
+            mirrorHash ^= noughtKeys[mirror];
+        }
+        evaluator.undo(player, index);
+        moveCount--;
+    }
+
+    /** Win detection comes from the evaluator's line counts, so it costs nothing extra per call. */
+    public State checkWin() {
+        if (evaluator.hasLine(Seed.CROSS)) return State.CROSS_WON;
+        if (evaluator.hasLine(Seed.NOUGHT)) return State.NOUGHT_WON;
+        if (moveCount == geometry.getSize()) return State.DRAW;
+        return State.PLAYING;
+    }
+
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Hash shared by the position and its left-right mirror image, which
+     * have the same value: the smaller of the two hashes. Moves stored under
+     * it are in the orientation of that smaller hash; see {@link #isMirrored()}.
+     */
+    public long getCanonicalHash() {
+        return Math.min(hash, mirrorHash);
+    }
+
+    /** Whether {@link #getCanonicalHash()} is the mirror image's hash, so columns must be flipped. */
+    public boolean isMirrored() {
+        return mirrorHash < hash;
+    }
+
+    /** Column {@code col} seen in the mirror image. */
+    public int mirrorColumn(int col) {
+        return cols - 1 - col;
+    }
+
+    /** Whether the position is its own mirror image, so mirrored moves lead to equal positions. */
+    public boolean isSymmetric() {
+        for (int col = 0; col < cols / 2; col++) {
+            int other = cols - 1 - col;
+            if (heights[col] != heights[other]) {
+                return false;
+            }
+            for (int h = 0; h < heights[col]; h++) {
+                if (isSet(crossBits, col * height + h) != isSet(crossBits, other * height + h)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Unique key of the position when the board fits in one 64-bit word: the
+     * occupied cells plus one marker bit on top of every column, plus the
+     * cross discs. Unlike {@link #getHash()} it never collides, so it is used
+     * where keys are stored on disk. Larger boards fall back to the hash.
+     */
+    public long getKey() {
+        if (crossBits.length > 1) {
+            return hash;
+        }
+        return crossBits[0] + (crossBits[0] | noughtBits[0]) + bottomMask;
+    }
+
+    /** First word of {@code player}'s disc bits; the whole board when it fits in one word. */
+    long getBits(Seed player) {
+        return player == Seed.CROSS ? crossBits[0] : noughtBits[0];
+    }
+
+    /** Heuristic score from {@code player}'s side, kept up to date by every move. */
+    public int evaluate(Seed player) {
+        return evaluator.getScore(player);
+    }
+
+    private static boolean isSet(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+}
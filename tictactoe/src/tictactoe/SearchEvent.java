@@ -0,0 +1,52 @@
+package tictactoe;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event committed after every AI move, so searches can be
+ * profiled in a running game with {@code -XX:StartFlightRecording}.
+ */
+@Name("tictactoe.Search")
+@Label("AI Search")
+@Category("Connect Four")
+@Description("One AIPlayer.getBestMove call")
+@StackTrace(false)
+class SearchEvent extends Event {
+    @Label("AI Seed")
+    String seed;
+
+    @Label("Column")
+    int column;
+
+    @Label("Score")
+    int score;
+
+    @Label("Depth")
+    int depth;
+
+    @Label("Nodes")
+    long nodes;
+
+    @Label("Leaf Evaluations")
+    long leafEvaluations;
+
+    @Label("Beta Cutoffs")
+    long betaCutoffs;
+
+    @Label("First-Move Cutoffs")
+    long firstMoveCutoffs;
+
+    @Label("Table Probes")
+    long tableProbes;
+
+    @Label("Table Hits")
+    long tableHits;
+
+    @Label("Opening Book")
+    boolean fromBook;
+}
@@ -0,0 +1,88 @@
+package tictactoe;
+
+/** Work done by one {@link Engine#getBestMove} call. */
+public final class SearchStats {
+    public static final SearchStats EMPTY = new SearchStats(0, 0, 0, 0, -1, 0, 0, 0, false);
+
+    private final long nodes;
+    private final long leafEvaluations;
+    private final long betaCutoffs;
+    private final long firstMoveCutoffs;
+    private final int depth;
+    private final long timeNanos;
+    private final long tableProbes;
+    private final long tableHits;
+    private final boolean fromBook;
+
+    public SearchStats(long nodes, long leafEvaluations, long betaCutoffs, long firstMoveCutoffs,
+            int depth, long timeNanos, long tableProbes, long tableHits, boolean fromBook) {
+        this.nodes = nodes;
+        this.leafEvaluations = leafEvaluations;
+        this.betaCutoffs = betaCutoffs;
+        this.firstMoveCutoffs = firstMoveCutoffs;
+        this.depth = depth;
+        this.timeNanos = timeNanos;
+        this.tableProbes = tableProbes;
+        this.tableHits = tableHits;
+        this.fromBook = fromBook;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getLeafEvaluations() {
+        return leafEvaluations;
+    }
+
+    public long getBetaCutoffs() {
+        return betaCutoffs;
+    }
+
+    public long getFirstMoveCutoffs() {
+        return firstMoveCutoffs;
+    }
+
+    /** Deepest finished iteration, or -1 when no iteration finished. */
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getTimeNanos() {
+        return timeNanos;
+    }
+
+    public long getTableProbes() {
+        return tableProbes;
+    }
+
+    public long getTableHits() {
+        return tableHits;
+    }
+
+    public boolean isFromBook() {
+        return fromBook;
+    }
+
+    public double getNodesPerSecond() {
+        return timeNanos == 0 ? 0 : nodes * 1e9 / timeNanos;
+    }
+
+    public double getFirstMoveCutoffRate() {
+        return betaCutoffs == 0 ? 0 : (double) firstMoveCutoffs / betaCutoffs;
+    }
+
+    public double getTableHitRate() {
+        return tableProbes == 0 ? 0 : (double) tableHits / tableProbes;
+    }
+
+    @Override
+    public String toString() {
+        if (fromBook) {
+            return "book move";
+        }
+        return String.format("depth %d, %,d nodes in %.0f ms (%.0f kN/s), cutoffs %.0f%% first, TT hits %.0f%%",
+                depth, nodes, timeNanos / 1e6, getNodesPerSecond() / 1e3,
+                getFirstMoveCutoffRate() * 100, getTableHitRate() * 100);
+    }
+}
@@ -1,35 +1,46 @@
 package tictactoe;
 
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
 import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
 import java.net.URL;
-import javax.swing.ImageIcon;
+import javax.imageio.ImageIO;
 
 public enum Seed {
-    CROSS("X", "images/r1.jpg"),
-    NOUGHT("O", "images/r2.png"),
-    NO_SEED(" ", null);
+    CROSS("X", "images/r1.jpg", new Color(220, 40, 40)),
+    NOUGHT("O", "images/r2.png", new Color(240, 200, 30)),
+    NO_SEED(" ", null, null);
 
     private final String displayName;
-    private Image image;
+    // Decoded by AssetLoader in the background; null until then.
+    private volatile Image image;
+    private Image sprite; // image pre-scaled to Cell.SEED_SIZE, made on first paint
+    private Image spriteSource;
     private final String imageFileName;
+    private final Color placeholderColor;
 
-    private Seed(String displayName, String imageFileName) {
+    private Seed(String displayName, String imageFileName, Color placeholderColor) {
         this.displayName = displayName;
         this.imageFileName = imageFileName;
-        loadImage();
+        this.placeholderColor = placeholderColor;
     }
 
-    private void loadImage() {
+    /** Decodes the image; safe to call from any thread. */
+    void loadImage() {
         if (imageFileName != null) {
             try {
                 URL imgURL = getClass().getClassLoader().getResource(imageFileName);
-                if (imgURL != null) {
-                    ImageIcon icon = new ImageIcon(imgURL);
-                    image = icon.getImage();
-                } else {
-                    throw new RuntimeException("Image file not found: " + imageFileName);
+                if (imgURL == null) {
+                    throw new IOException("Image file not found: " + imageFileName);
                 }
-            } catch (ExceptionInInitializerError e) {
+                image = ImageIO.read(imgURL);
+            } catch (IOException e) {
                 System.err.println("Error loading image: " + imageFileName);
             }
         }
@@ -43,6 +54,37 @@ public enum Seed {
         return image;
     }
 
+    /** Colour of the plain disc drawn while the image is not loaded yet. */
+    public Color getPlaceholderColor() {
+        return placeholderColor;
+    }
+
+    /**
+     * The image scaled once to {@link Cell#SEED_SIZE} in a format compatible
+     * with the screen {@code g} paints to, so drawing it is a plain blit.
+     * Returns null when there is no image.
+     */
+    public Image getSprite(Graphics g) {
+        Image image = this.image;
+        if (image == null) {
+            return null;
+        }
+        if (spriteSource != image) {
+            GraphicsConfiguration config = (g instanceof Graphics2D g2) ? g2.getDeviceConfiguration() : null;
+            BufferedImage scaled = (config != null)
+                    ? config.createCompatibleImage(Cell.SEED_SIZE, Cell.SEED_SIZE, Transparency.TRANSLUCENT)
+                    : new BufferedImage(Cell.SEED_SIZE, Cell.SEED_SIZE, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D sg = scaled.createGraphics();
+            sg.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            sg.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            sg.drawImage(image, 0, 0, Cell.SEED_SIZE, Cell.SEED_SIZE, null);
+            sg.dispose();
+            sprite = scaled;
+            spriteSource = image;
+        }
+        return sprite;
+    }
+
     public void reloadImage() {
         loadImage();
     }
@@ -0,0 +1,349 @@
+package tictactoe;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Exact solver for connect-four positions, used by {@link AIPlayer}'s solver
+ * mode.
+ *
+ * Scores are from the side to move: positive when it wins, equal to the
+ * number of its own discs still unplayed when it does (so faster wins score
+ * higher), zero for a draw and negative for a loss. The value is narrowed
+ * with null-window searches; each one only has to prove "better or worse
+ * than x", which cuts far more than a full-window search. Moves that hand
+ * the opponent an immediate win are never searched, and bounds are kept in
+ * a transposition table that stays valid across moves and games.
+ *
+ * Works on its own two-word bitboard (the side to move's discs and all
+ * discs), so it only supports boards that fit in 64 bits with four in a row.
+ */
+public class Solver {
+    public static final int UNKNOWN = Integer.MIN_VALUE;
+    public static final int DEFAULT_TABLE_SIZE = 1 << 22;
+    private static final int CHECK_INTERVAL = 1023;
+
+    private final int cols;
+    private final int rows;
+    private final int height;
+    private final int size;
+    private final long bottomMask;
+    private final long boardMask;
+    private final int[] centerOrder;
+    private final TranspositionTable table;
+
+    private long current;   // discs of the side to move
+    private long mask;      // all discs
+    private int moves;
+    private long nodes;
+    private BooleanSupplier outOfBudget = () -> false;
+    private boolean stopped;
+    private final long[][] moveLists;
+    private final int[][] moveScores;
+
+    public Solver(Geometry geometry) {
+        this(geometry, new TranspositionTable(DEFAULT_TABLE_SIZE, TranspositionTable.ReplacementPolicy.ALWAYS));
+    }
+
+    public Solver(Geometry geometry, TranspositionTable table) {
+        if (!supports(geometry)) {
+            throw new IllegalArgumentException("Solver does not support " + geometry);
+        }
+        this.cols = geometry.getCols();
+        this.rows = geometry.getRows();
+        this.height = geometry.getHeight();
+        this.size = geometry.getSize();
+        this.centerOrder = geometry.getCenterOrder();
+        this.table = table;
+        long bottom = 0;
+        for (int col = 0; col < cols; col++) {
+            bottom |= 1L << col * height;
+        }
+        this.bottomMask = bottom;
+        this.boardMask = bottom * ((1L << rows) - 1);
+        this.moveLists = new long[size + 1][cols];
+        this.moveScores = new int[size + 1][cols];
+    }
+
+    public static boolean supports(Geometry geometry) {
+        return geometry.getWinLength() == 4 && geometry.getBitCount() <= 64;
+    }
+
+    /**
+     * Called every few thousand nodes; once it returns true the current call
+     * gives up and returns {@link #UNKNOWN} or -1.
+     */
+    public void setBudget(BooleanSupplier outOfBudget) {
+        this.outOfBudget = outOfBudget;
+    }
+
+    public long getNodeCount() {
+        return nodes;
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return table;
+    }
+
+    /** Exact score of {@code position} for the side to move, or {@link #UNKNOWN} when over budget. */
+    public int solve(Position position) {
+        load(position);
+        return solve();
+    }
+
+    /**
+     * A best move for the side to move and its exact score, packed as
+     * {@code score << 8 | col}; -1 when over budget. Losses pack to other
+     * negative values. Unpack with {@link #columnOf} and {@link #scoreOf}.
+     */
+    public long bestMove(Position position) {
+        load(position);
+        for (int col : centerOrder) {
+            if (canPlay(col) && isWinningMove(col)) {
+                return pack((size + 1 - moves) / 2, col);
+            }
+        }
+        int value = solve();
+        if (value == UNKNOWN) {
+            return -1;
+        }
+        // Early exit: play the first move, centre out, whose reply is proven no better than -value.
+        long savedCurrent = current;
+        long savedMask = mask;
+        int fallback = -1;
+        for (int col : centerOrder) {
+            if (!canPlay(col)) {
+                continue;
+            }
+            fallback = fallback < 0 ? col : fallback;
+            play(col);
+            int reply;
+            if (canWinNext()) {
+                reply = (size + 1 - moves) / 2;
+            } else {
+                reply = negamax(-value, -value + 1);
+            }
+            current = savedCurrent;
+            mask = savedMask;
+            moves--;
+            if (stopped) {
+                return -1;
+            }
+            if (reply <= -value) {
+                return pack(value, col);
+            }
+        }
+        return pack(value, fallback);
+    }
+
+    public static int columnOf(long packed) {
+        return (int) (packed & 0xFF);
+    }
+
+    public static int scoreOf(long packed) {
+        return (int) (packed >> 8);
+    }
+
+    private static long pack(int score, int col) {
+        return (long) score << 8 | col;
+    }
+
+    private void load(Position position) {
+        long cross = position.getBits(Seed.CROSS);
+        long nought = position.getBits(Seed.NOUGHT);
+        moves = position.getMoveCount();
+        mask = cross | nought;
+        current = (moves & 1) == 0 ? cross : nought;
+        nodes = 0;
+        stopped = false;
+        table.newSearch();
+    }
+
+    private int solve() {
+        if (canWinNext()) {
+            return (size + 1 - moves) / 2;
+        }
+        int min = -(size - moves) / 2;
+        int max = (size + 1 - moves) / 2;
+        while (min < max) {
+            int med = min + (max - min) / 2;
+            if (med <= 0 && min / 2 < med) {
+                med = min / 2;
+            } else if (med >= 0 && max / 2 > med) {
+                med = max / 2;
+            }
+            int result = negamax(med, med + 1);
+            if (stopped) {
+                return UNKNOWN;
+            }
+            if (result <= med) {
+                max = result;
+            } else {
+                min = result;
+            }
+        }
+        return min;
+    }
+
+    /** Score within [alpha, beta] bounds; the side to move must not have a winning move. */
+    private int negamax(int alpha, int beta) {
+        if ((++nodes & CHECK_INTERVAL) == 0 && outOfBudget.getAsBoolean()) {
+            stopped = true;
+        }
+        if (stopped) {
+            return 0;
+        }
+
+        long next = possibleNonLosingMoves();
+        if (next == 0) {
+            return -(size - moves) / 2;
+        }
+        if (moves >= size - 2) {
+            return 0;
+        }
+        int min = -(size - 2 - moves) / 2;
+        if (alpha < min) {
+            alpha = min;
+            if (alpha >= beta) return alpha;
+        }
+        int max = (size - 1 - moves) / 2;
+
+        long key = key();
+        long entry = table.probe(key);
+        if (entry != TranspositionTable.MISS) {
+            int stored = TranspositionTable.scoreOf(entry);
+            if (TranspositionTable.boundOf(entry) == TranspositionTable.LOWER) {
+                if (alpha < stored) {
+                    alpha = stored;
+                    if (alpha >= beta) return alpha;
+                }
+            } else if (beta > stored) {
+                beta = stored;
+                if (alpha >= beta) return beta;
+            }
+        }
+        if (beta > max) {
+            beta = max;
+            if (alpha >= beta) return beta;
+        }
+
+        long[] list = moveLists[moves];
+        int[] scores = moveScores[moves];
+        int count = 0;
+        for (int col : centerOrder) {
+            long move = next & columnMask(col);
+            if (move == 0) {
+                continue;
+            }
+            int score = Long.bitCount(winningCells(current | move, mask));
+            int i = count++;
+            while (i > 0 && scores[i - 1] < score) {
+                list[i] = list[i - 1];
+                scores[i] = scores[i - 1];
+                i--;
+            }
+            list[i] = move;
+            scores[i] = score;
+        }
+
+        long savedCurrent = current;
+        long savedMask = mask;
+        for (int i = 0; i < count; i++) {
+            current ^= mask;
+            mask |= list[i];
+            moves++;
+            int score = -negamax(-beta, -alpha);
+            current = savedCurrent;
+            mask = savedMask;
+            moves--;
+            if (stopped) {
+                return 0;
+            }
+            if (score >= beta) {
+                table.store(key, 0, TranspositionTable.LOWER, score, 0);
+                return score;
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+        }
+        table.store(key, 0, TranspositionTable.UPPER, alpha, 0);
+        return alpha;
+    }
+
+    private boolean canPlay(int col) {
+        return (mask & topMask(col)) == 0;
+    }
+
+    private void play(int col) {
+        current ^= mask;
+        mask |= mask + bottomMaskOf(col);
+        moves++;
+    }
+
+    private boolean isWinningMove(int col) {
+        long move = (mask + bottomMaskOf(col)) & columnMask(col);
+        return (winningCells(current, mask) & move) != 0;
+    }
+
+    private boolean canWinNext() {
+        return (winningCells(current, mask) & possible()) != 0;
+    }
+
+    /** Playable cells that neither let the opponent win at once nor ignore one of their threats. */
+    private long possibleNonLosingMoves() {
+        long possible = possible();
+        long opponentWins = winningCells(current ^ mask, mask);
+        long forced = possible & opponentWins;
+        if (forced != 0) {
+            if ((forced & (forced - 1)) != 0) {
+                return 0; // two threats at once: no move saves the game
+            }
+            possible = forced;
+        }
+        return possible & ~(opponentWins >> 1);
+    }
+
+    private long possible() {
+        return (mask + bottomMask) & boardMask;
+    }
+
+    /**
+     * Unique key of the position, scrambled so the table index (its low bits)
+     * depends on every column rather than the leftmost ones.
+     */
+    private long key() {
+        return Long.rotateLeft((current + mask + bottomMask) * 0x9E3779B97F4A7C15L, 32);
+    }
+
+    /** Empty cells that would complete a line of four for the owner of {@code discs}. */
+    private long winningCells(long discs, long occupied) {
+        // vertical
+        long r = (discs << 1) & (discs << 2) & (discs << 3);
+        r |= alignments(discs, height);      // horizontal
+        r |= alignments(discs, height - 1);  // diagonal going down
+        r |= alignments(discs, height + 1);  // diagonal going up
+        return r & (boardMask ^ occupied);
+    }
+
+    private static long alignments(long discs, int shift) {
+        long p = (discs << shift) & (discs << 2 * shift);
+        long r = p & (discs << 3 * shift);
+        r |= p & (discs >>> shift);
+        p = (discs >>> shift) & (discs >>> 2 * shift);
+        r |= p & (discs << shift);
+        r |= p & (discs >>> 3 * shift);
+        return r;
+    }
+
+    private long topMask(int col) {
+        return (1L << (rows - 1)) << col * height;
+    }
+
+    private long bottomMaskOf(int col) {
+        return 1L << col * height;
+    }
+
+    private long columnMask(int col) {
+        return ((1L << rows) - 1) << col * height;
+    }
+}
@@ -4,63 +4,145 @@ import java.io.IOException;
 import java.net.URL;
 import javax.sound.sampled.*;
 
+/**
+ * Sound effects, each backed by a small pool of pre-opened clips so that
+ * overlapping plays do not cut each other off. All clip calls run on the
+ * {@link AudioThread}; the public methods only queue work.
+ */
 public enum SoundEffect {
     EAT_FOOD("audio/discord-notification.wav"),
     EXPLODE("audio/spongebob-fail.wav"),
     DIE("audio/gedagedigeda-go.wav");
 
     public enum Volume {
-        MUTE, LOW, MEDIUM, HIGH
+        MUTE(Float.NEGATIVE_INFINITY), LOW(-20f), MEDIUM(-10f), HIGH(0f);
+
+        private final float gainDb;
+
+        Volume(float gainDb) {
+            this.gainDb = gainDb;
+        }
+
+        public float getGainDb() {
+            return gainDb;
+        }
     }
 
-    public static Volume volume = Volume.LOW;
-    private Clip clip;
+    private static final int POOL_SIZE = 3;
+
+    public static volatile Volume volume = Volume.LOW;
+    private final Clip[] clips = new Clip[POOL_SIZE];
+    private final boolean[] paused = new boolean[POOL_SIZE];
+    private int nextClip;
+
+    private final String soundFileName;
 
     private SoundEffect(String soundFileName) {
+        this.soundFileName = soundFileName;
+    }
+
+    /**
+     * Opens this effect's clips; safe to call from any thread. The clips are
+     * handed to the audio thread, so a play() queued earlier is silent rather
+     * than blocked.
+     */
+    void load() {
+        Clip[] opened = new Clip[POOL_SIZE];
         try {
             URL url = this.getClass().getClassLoader().getResource(soundFileName);
             if (url == null) {
                 throw new RuntimeException("Sound file not found: " + soundFileName);
             }
 
-            AudioInputStream audioInputStream = AudioSystem.getAudioInputStream(url);
-            clip = AudioSystem.getClip();
-            clip.open(audioInputStream);
+            for (int i = 0; i < POOL_SIZE; i++) {
+                try (AudioInputStream audioInputStream = AudioSystem.getAudioInputStream(url)) {
+                    Clip clip = AudioSystem.getClip();
+                    clip.open(audioInputStream);
+                    opened[i] = clip;
+                }
+            }
         } catch (IOException | RuntimeException | LineUnavailableException | UnsupportedAudioFileException e) {
             System.err.println("Error loading sound: " + soundFileName);
         }
+        AudioThread.submit(() -> System.arraycopy(opened, 0, clips, 0, POOL_SIZE));
     }
 
     public void play() {
-        if (volume != Volume.MUTE) {
-            if (clip.isRunning()) {
-                clip.stop();
-            }
-            clip.setFramePosition(0);
-            clip.start();
+        Volume vol = volume;
+        if (vol != Volume.MUTE) {
+            AudioThread.submit(() -> playNow(vol));
         }
     }
 
     public void stop() {
-        if (clip.isRunning()) {
-            clip.stop();
-        }
+        AudioThread.submit(() -> {
+            for (int i = 0; i < POOL_SIZE; i++) {
+                if (clips[i] != null && clips[i].isRunning()) {
+                    clips[i].stop();
+                }
+                paused[i] = false;
+            }
+        });
     }
 
     public void pause() {
-        if (clip.isRunning()) {
-            clip.stop();
-        }
+        AudioThread.submit(() -> {
+            for (int i = 0; i < POOL_SIZE; i++) {
+                if (clips[i] != null && clips[i].isRunning()) {
+                    clips[i].stop();
+                    paused[i] = true;
+                }
+            }
+        });
     }
 
     public void resume() {
-        if (!clip.isRunning()) {
-            clip.start();
+        AudioThread.submit(() -> {
+            for (int i = 0; i < POOL_SIZE; i++) {
+                if (paused[i]) {
+                    clips[i].start();
+                    paused[i] = false;
+                }
+            }
+        });
+    }
+
+    /** Starts a free clip from the pool, or restarts the oldest one if all are busy. */
+    private void playNow(Volume vol) {
+        int index = -1;
+        for (int i = 0; i < POOL_SIZE && index < 0; i++) {
+            int candidate = (nextClip + i) % POOL_SIZE;
+            if (clips[candidate] != null && !clips[candidate].isRunning()) {
+                index = candidate;
+            }
+        }
+        if (index < 0) {
+            index = nextClip;
+            if (clips[index] == null) {
+                return; // the sound could not be loaded
+            }
+            clips[index].stop();
+        }
+        nextClip = (index + 1) % POOL_SIZE;
+        paused[index] = false;
+        Clip clip = clips[index];
+        setGain(clip, vol);
+        clip.setFramePosition(0);
+        clip.start();
+    }
+
+    private static void setGain(Clip clip, Volume vol) {
+        if (clip.isControlSupported(FloatControl.Type.MASTER_GAIN)) {
+            FloatControl gain = (FloatControl) clip.getControl(FloatControl.Type.MASTER_GAIN);
+            gain.setValue(Math.max(gain.getMinimum(), Math.min(gain.getMaximum(), vol.getGainDb())));
         }
     }
 
+    /** Opens every effect's clips on the calling thread. */
     public static void initGame() {
-        values();
+        for (SoundEffect effect : values()) {
+            effect.load();
+        }
     }
 
     public static void setVolume(Volume vol) {
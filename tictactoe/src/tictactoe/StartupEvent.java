@@ -0,0 +1,25 @@
+package tictactoe;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event committed once, when the first frame is painted, so
+ * startup time can be tracked with {@code -XX:StartFlightRecording} instead
+ * of console output.
+ */
+@Name("tictactoe.Startup")
+@Label("First Frame")
+@Category("Connect Four")
+@Description("Time from JVM start to the first painted frame")
+@StackTrace(false)
+class StartupEvent extends Event {
+    @Label("Since JVM Start")
+    @Timespan(Timespan.MILLISECONDS)
+    long sinceJvmStart;
+}
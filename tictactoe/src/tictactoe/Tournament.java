@@ -0,0 +1,244 @@
+package tictactoe;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Headless self-play runner: plays many {@link Engine} vs {@link Engine}
+ * games in parallel on plain {@link Board}s and reports results, move
+ * latency and search speed for each side.
+ *
+ * Usage: {@code java tictactoe.Tournament [games] [configA] [configB] [randomPlies] [outFile]}
+ * where a config is a comma-separated list such as {@code depth=6},
+ * {@code time=50,threads=2}, {@code nodes=200000,book}, {@code time=100,solve} or
+ * {@code mcts,time=100} (Monte Carlo tree search; nodes counts playouts). The board comes
+ * from {@code -Dconnectfour.rows/cols/connect}, as in the game.
+ */
+public class Tournament {
+    public static void main(String[] args) throws InterruptedException, ExecutionException, IOException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        PlayerConfig configA = PlayerConfig.parse(args.length > 1 ? args[1] : "depth=6");
+        PlayerConfig configB = PlayerConfig.parse(args.length > 2 ? args[2] : "depth=4");
+        int randomPlies = args.length > 3 ? Integer.parseInt(args[3]) : 2;
+        int cores = Runtime.getRuntime().availableProcessors();
+        Geometry geometry = Geometry.fromSystemProperties();
+
+        ExecutorService executor = Executors.newFixedThreadPool(cores);
+        ThreadLocal<Engine[]> players = ThreadLocal.withInitial(() -> new Engine[] {
+            configA.create(Seed.CROSS, geometry), configA.create(Seed.NOUGHT, geometry),
+            configB.create(Seed.CROSS, geometry), configB.create(Seed.NOUGHT, geometry)
+        });
+
+        long start = System.nanoTime();
+        List<Future<GameResult>> futures = new ArrayList<>(games);
+        for (int i = 0; i < games; i++) {
+            int game = i;
+            futures.add(executor.submit(() -> playGame(game, geometry, randomPlies, players.get())));
+        }
+        SideStats statsA = new SideStats("A " + configA);
+        SideStats statsB = new SideStats("B " + configB);
+        for (Future<GameResult> future : futures) {
+            GameResult result = future.get();
+            statsA.add(result, true);
+            statsB.add(result, false);
+        }
+        executor.shutdown();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%d games (%s) on %d cores in %.1f s, %d random opening plies%n",
+                games, geometry, cores, seconds, randomPlies));
+        statsA.appendTo(report);
+        statsB.appendTo(report);
+        System.out.print(report);
+        if (args.length > 4) {
+            Files.writeString(Paths.get(args[4]), report);
+        }
+    }
+
+    /** Plays one game; A takes the first move in even games, B in odd ones. */
+    private static GameResult playGame(int game, Geometry geometry, int randomPlies, Engine[] players) {
+        boolean aIsCross = game % 2 == 0;
+        Engine cross = aIsCross ? players[0] : players[2];
+        Engine nought = aIsCross ? players[3] : players[1];
+        cross.newGame();
+        nought.newGame();
+
+        Board board = new Board(geometry);
+        Random random = new Random(game / 2);
+        GameResult result = new GameResult(aIsCross, geometry.getSize());
+        Seed toMove = Seed.CROSS;
+        State state = State.PLAYING;
+
+        while (state == State.PLAYING) {
+            int col;
+            if (board.getMoveCount() < randomPlies) {
+                do {
+                    col = random.nextInt(geometry.getCols());
+                } while (board.getLowestEmptyRow(col) == -1);
+            } else {
+                Engine player = (toMove == Seed.CROSS) ? cross : nought;
+                long moveStart = System.nanoTime();
+                col = player.getBestMove(board);
+                result.record((toMove == Seed.CROSS) == aIsCross, System.nanoTime() - moveStart,
+                        player.getLastSearchStats().getNodes());
+            }
+            state = board.makeMove(toMove, col);
+            toMove = (toMove == Seed.CROSS) ? Seed.NOUGHT : Seed.CROSS;
+        }
+        result.state = state;
+        return result;
+    }
+
+    /** Search settings for one side of the match. */
+    static final class PlayerConfig {
+        private final String text;
+        private long timeMillis;
+        private int depth; // zero keeps the player's default of the whole game
+        private long nodes;
+        private int threads = 1;
+        private boolean book;
+        private boolean solve;
+        private boolean mcts;
+
+        private PlayerConfig(String text) {
+            this.text = text;
+        }
+
+        static PlayerConfig parse(String text) {
+            PlayerConfig config = new PlayerConfig(text);
+            for (String option : text.split(",")) {
+                String[] parts = option.split("=", 2);
+                switch (parts[0].trim()) {
+                    case "time" -> config.timeMillis = Long.parseLong(parts[1]);
+                    case "depth" -> config.depth = Integer.parseInt(parts[1]);
+                    case "nodes" -> config.nodes = Long.parseLong(parts[1]);
+                    case "threads" -> config.threads = Integer.parseInt(parts[1]);
+                    case "book" -> config.book = true;
+                    case "solve" -> config.solve = true;
+                    case "mcts" -> config.mcts = true;
+                    default -> throw new IllegalArgumentException("Unknown player option: " + option);
+                }
+            }
+            return config;
+        }
+
+        Engine create(Seed seed, Geometry geometry) {
+            if (mcts) {
+                MctsPlayer player = new MctsPlayer(seed, geometry, 1 << 20);
+                player.setTimeBudget(timeMillis);
+                player.setPlayoutBudget(nodes);
+                player.setThreads(threads);
+                return player;
+            }
+            AIPlayer player = new AIPlayer(seed, geometry, new TranspositionTable(1 << 18,
+                    TranspositionTable.ReplacementPolicy.DEPTH_PREFERRED));
+            player.setTimeBudget(timeMillis);
+            if (depth > 0) {
+                player.setMaxDepth(depth);
+            }
+            player.setNodeBudget(nodes);
+            player.setThreads(threads);
+            if (!book) {
+                player.setOpeningBook(null);
+            }
+            player.setSolverMode(solve);
+            return player;
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+
+    /** Per-move measurements of one game, split by side. */
+    private static final class GameResult {
+        private final boolean aIsCross;
+        private final long[][] latencies;
+        private final int[] moves = new int[2];
+        private final long[] nodes = new long[2];
+        private State state;
+
+        private GameResult(boolean aIsCross, int maxMoves) {
+            this.aIsCross = aIsCross;
+            this.latencies = new long[][] {new long[maxMoves], new long[maxMoves]};
+        }
+
+        private void record(boolean sideA, long nanos, long nodeCount) {
+            int side = sideA ? 0 : 1;
+            latencies[side][moves[side]++] = nanos;
+            nodes[side] += nodeCount;
+        }
+
+        private int outcomeFor(boolean sideA) {
+            if (state == State.DRAW) return 0;
+            boolean crossWon = state == State.CROSS_WON;
+            return (crossWon == (aIsCross == sideA)) ? 1 : -1;
+        }
+    }
+
+    private static final class SideStats {
+        private final String name;
+        private int wins;
+        private int draws;
+        private int losses;
+        private long[] latencies = new long[1024];
+        private int moveCount;
+        private long nodes;
+        private long searchNanos;
+
+        private SideStats(String name) {
+            this.name = name;
+        }
+
+        private void add(GameResult result, boolean sideA) {
+            int side = sideA ? 0 : 1;
+            switch (result.outcomeFor(sideA)) {
+                case 1 -> wins++;
+                case 0 -> draws++;
+                default -> losses++;
+            }
+            for (int i = 0; i < result.moves[side]; i++) {
+                if (moveCount == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, moveCount * 2);
+                }
+                latencies[moveCount++] = result.latencies[side][i];
+                searchNanos += result.latencies[side][i];
+            }
+            nodes += result.nodes[side];
+        }
+
+        private void appendTo(StringBuilder out) {
+            long[] sorted = Arrays.copyOf(latencies, moveCount);
+            Arrays.sort(sorted);
+            int games = wins + draws + losses;
+            out.append(String.format("%s%n", name));
+            out.append(String.format("  W/D/L %d/%d/%d (score %.1f%%)%n",
+                    wins, draws, losses, games == 0 ? 0 : 100.0 * (wins + draws / 2.0) / games));
+            out.append(String.format("  %d moves, latency avg %.2f ms, p50 %.2f ms, p95 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                    moveCount, moveCount == 0 ? 0 : searchNanos / 1e6 / moveCount,
+                    percentile(sorted, 50), percentile(sorted, 95), percentile(sorted, 99),
+                    percentile(sorted, 100)));
+            out.append(String.format("  %.0f nodes/s%n", searchNanos == 0 ? 0 : nodes * 1e9 / searchNanos));
+        }
+
+        private static double percentile(long[] sorted, int percent) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percent / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+}
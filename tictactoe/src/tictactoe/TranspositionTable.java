@@ -0,0 +1,140 @@
+package tictactoe;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size transposition table for the AI search, indexed by
+ * {@link Position#getCanonicalHash()} so mirror images share an entry.
+ *
+ * Entries live in two parallel {@code long} arrays: the full key and a packed
+ * data word holding score, remaining depth, bound type, best move and the
+ * search generation that wrote it. Nothing is allocated after construction.
+ *
+ * The table may be shared by several search threads without locking: each
+ * slot stores {@code key ^ data}, so a slot torn by two concurrent writers no
+ * longer matches its key and simply reads as a miss.
+ */
+public class TranspositionTable {
+    public static final int DEFAULT_SIZE = 1 << 20;
+    public static final long MISS = 0;
+
+    public static final int EXACT = 0;
+    public static final int LOWER = 1;
+    public static final int UPPER = 2;
+
+    public enum ReplacementPolicy {
+        /** Always overwrite the slot with the newest result. */
+        ALWAYS,
+        /** Keep a deeper entry from the current search unless the key matches. */
+        DEPTH_PREFERRED
+    }
+
+    private static final long VALID_BIT = 1L << 63;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int indexMask;
+    private final ReplacementPolicy policy;
+    private volatile int generation;
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+
+    public TranspositionTable() {
+        this(DEFAULT_SIZE, ReplacementPolicy.DEPTH_PREFERRED);
+    }
+
+    public TranspositionTable(int size, ReplacementPolicy policy) {
+        if (size <= 0 || Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException("Table size must be a positive power of two");
+        }
+        this.keys = new long[size];
+        this.data = new long[size];
+        this.indexMask = size - 1;
+        this.policy = policy;
+    }
+
+    /** Returns the packed entry stored for {@code key}, or {@link #MISS}. */
+    public long probe(long key) {
+        probes.increment();
+        int index = (int) key & indexMask;
+        long entry = data[index];
+        if (entry != MISS && (keys[index] ^ entry) == key) {
+            hits.increment();
+            return entry;
+        }
+        return MISS;
+    }
+
+    public void store(long key, int depth, int bound, int score, int move) {
+        int index = (int) key & indexMask;
+        long old = data[index];
+        if (policy == ReplacementPolicy.DEPTH_PREFERRED && old != MISS && (keys[index] ^ old) != key
+                && generationOf(old) == (generation & 0xFF) && depthOf(old) > depth) {
+            return;
+        }
+        long entry = pack(depth, bound, score, move);
+        keys[index] = key ^ entry;
+        data[index] = entry;
+    }
+
+    /** Marks the start of a new search so entries from older ones age out first. */
+    public void newSearch() {
+        generation++;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(data, MISS);
+        generation = 0;
+        probes.reset();
+        hits.reset();
+    }
+
+    public long getProbes() {
+        return probes.sum();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public double getHitRate() {
+        long probeCount = probes.sum();
+        return probeCount == 0 ? 0 : (double) hits.sum() / probeCount;
+    }
+
+    private long pack(int depth, int bound, int score, int move) {
+        return VALID_BIT
+                | ((long) (generation & 0xFF) << 48)
+                | ((long) (depth & 0xFF) << 40)
+                | ((long) (bound & 0x3) << 36)
+                | ((long) (move & 0xF) << 32)
+                | (score & 0xFFFFFFFFL);
+    }
+
+    public static int scoreOf(long entry) {
+        return (int) entry;
+    }
+
+    public static int moveOf(long entry) {
+        return (int) (entry >>> 32) & 0xF;
+    }
+
+    public static int boundOf(long entry) {
+        return (int) (entry >>> 36) & 0x3;
+    }
+
+    public static int depthOf(long entry) {
+        return (int) (entry >>> 40) & 0xFF;
+    }
+
+    private static int generationOf(long entry) {
+        return (int) (entry >>> 48) & 0xFF;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d/%d hits (%.1f%%)", getHits(), getProbes(), getHitRate() * 100);
+    }
+}
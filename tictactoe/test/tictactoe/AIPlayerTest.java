@@ -0,0 +1,115 @@
+package tictactoe;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class AIPlayerTest {
+    // Cross to move with three in column 0.
+    private static final String CROSS_WINS_IN_ONE = "010102";
+    // Nought to move with three in column 0.
+    private static final String NOUGHT_WINS_IN_ONE = "6050601";
+    // Cross to move; nought threatens column 3.
+    private static final String CROSS_MUST_BLOCK = "031353";
+    // Nought to move; cross threatens column 3.
+    private static final String NOUGHT_MUST_BLOCK = "30313";
+
+    @Test
+    void takesWinInOne() {
+        for (int depth = 0; depth <= 4; depth++) {
+            AIPlayer cross = Positions.newPlayer(Seed.CROSS, depth);
+            assertEquals(0, cross.getBestMove(Positions.of(CROSS_WINS_IN_ONE)), "cross, depth " + depth);
+            assertEquals(AIPlayer.WIN_SCORE, cross.getLastScore());
+
+            AIPlayer nought = Positions.newPlayer(Seed.NOUGHT, depth);
+            assertEquals(0, nought.getBestMove(Positions.of(NOUGHT_WINS_IN_ONE)), "nought, depth " + depth);
+            assertEquals(AIPlayer.WIN_SCORE, nought.getLastScore());
+        }
+    }
+
+    @Test
+    void blocksImmediateThreat() {
+        for (int depth = 1; depth <= 5; depth++) {
+            assertEquals(3, Positions.newPlayer(Seed.CROSS, depth).getBestMove(Positions.of(CROSS_MUST_BLOCK)),
+                    "cross, depth " + depth);
+            assertEquals(3, Positions.newPlayer(Seed.NOUGHT, depth).getBestMove(Positions.of(NOUGHT_MUST_BLOCK)),
+                    "nought, depth " + depth);
+        }
+    }
+
+    @Test
+    void analysisScoresUnblockedThreatAsLoss() {
+        for (Seed seed : new Seed[] {Seed.CROSS, Seed.NOUGHT}) {
+            String moves = seed == Seed.CROSS ? CROSS_MUST_BLOCK : NOUGHT_MUST_BLOCK;
+            AIPlayer analyser = Positions.newPlayer(seed, 2);
+            int[] scores = new int[Geometry.STANDARD.getCols()];
+            analyser.analyze(Positions.of(moves), (col, score, depth) -> {
+                if (depth == 2) {
+                    scores[col] = score;
+                }
+                return true;
+            });
+            for (int col = 0; col < scores.length; col++) {
+                if (col == 3) {
+                    assertTrue(scores[col] > -AIPlayer.WIN_SCORE, seed + " blocking column scored as a loss");
+                } else {
+                    assertEquals(-AIPlayer.WIN_SCORE, scores[col], seed + ", column " + col);
+                }
+            }
+        }
+    }
+
+    @Test
+    void emptyPonderCacheDoesNotMatchEmptyBoard() {
+        // Boards over 64 bits key positions by their hash, which is 0 for the empty board.
+        Geometry geometry = Geometry.of(8, 8, 4);
+        AIPlayer player = new AIPlayer(Seed.CROSS, geometry, new TranspositionTable(1 << 16,
+                TranspositionTable.ReplacementPolicy.DEPTH_PREFERRED));
+        player.setTimeBudget(0);
+        player.setMaxDepth(0);
+        assertEquals(0, new Position(geometry).getKey());
+        int col = player.getBestMove(new Position(geometry));
+        assertTrue(col == 3 || col == 4, "column " + col);
+    }
+
+    @Test
+    void searchAfterPonderingRunsToFullDepth() throws InterruptedException {
+        AIPlayer player = Positions.newPlayer(Seed.CROSS, 8);
+        Position position = Positions.of("3");
+        player.startPondering(position);
+        Thread.sleep(50);
+        position.makeMove(Seed.NOUGHT, 3);
+        player.getBestMove(position);
+        assertEquals(8, player.getLastDepth());
+    }
+
+    @Test
+    void cancelBeforeSearchStartsStopsIt() {
+        AIPlayer player = Positions.newPlayer(Seed.CROSS, Geometry.STANDARD.getSize());
+        int token = player.getSearchToken();
+        player.cancel();
+        long start = System.nanoTime();
+        int col = player.getBestMove(Positions.of("33"), token);
+        assertTrue(System.nanoTime() - start < 1_000_000_000L, "cancelled search ran on");
+        assertTrue(col >= 0 && col < Geometry.STANDARD.getCols());
+
+        // A token taken after the cancel is not affected by it.
+        player.setMaxDepth(4);
+        assertEquals(0, player.getBestMove(Positions.of(CROSS_WINS_IN_ONE)));
+        assertEquals(4, player.getLastDepth());
+    }
+
+    @Test
+    void analysisCancelledBeforeItStartsReportsNothing() {
+        AIPlayer analyser = Positions.newPlayer(Seed.CROSS, Geometry.STANDARD.getSize());
+        int token = analyser.getSearchToken();
+        analyser.cancel();
+        int[] reported = new int[1];
+        analyser.analyze(Positions.of("33"), token, (col, score, depth) -> {
+            reported[0]++;
+            return true;
+        });
+        assertEquals(0, reported[0]);
+    }
+}
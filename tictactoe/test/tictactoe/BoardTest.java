@@ -0,0 +1,25 @@
+package tictactoe;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class BoardTest {
+    @Test
+    void cloneCopiesStateAndHistory() {
+        Board board = new Board();
+        for (int col : new int[] {0, 1, 0, 1, 0, 1}) {
+            board.makeMove(board.getMoveCount() % 2 == 0 ? Seed.CROSS : Seed.NOUGHT, col);
+        }
+        Board copy = board.clone();
+        assertEquals(State.CROSS_WON, copy.makeMove(Seed.CROSS, 0));
+        assertEquals(State.PLAYING, board.checkWin());
+
+        assertEquals(0, copy.undoMove());
+        assertEquals(1, copy.undoMove());
+        assertEquals(5, copy.getMoveCount());
+        assertEquals(Seed.NOUGHT, board.getCell(3, 1).getContent());
+        assertEquals(Seed.NO_SEED, copy.getCell(3, 1).getContent());
+        assertEquals(3, copy.getLowestEmptyRow(1));
+    }
+}
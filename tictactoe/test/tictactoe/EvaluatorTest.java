@@ -0,0 +1,77 @@
+package tictactoe;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class EvaluatorTest {
+    @Test
+    void matchesFullBoardScanOnStandardBoard() {
+        playRandomGames(Geometry.STANDARD, 200);
+    }
+
+    @Test
+    void matchesFullBoardScanOnLargerBoard() {
+        playRandomGames(Geometry.of(8, 9, 5), 50);
+    }
+
+    /** Plays random games on a Position and a Board side by side, comparing scores after every move and undo. */
+    private static void playRandomGames(Geometry geometry, int games) {
+        Random random = new Random(1);
+        for (int game = 0; game < games; game++) {
+            Position position = new Position(geometry);
+            Board board = new Board(geometry);
+            Seed toMove = Seed.CROSS;
+            while (position.checkWin() == State.PLAYING) {
+                int col;
+                do {
+                    col = random.nextInt(geometry.getCols());
+                } while (!position.canPlay(col));
+                position.makeMove(toMove, col);
+                board.makeMove(toMove, col);
+                assertScoresMatch(board, position);
+                assertEquals(board.checkWin(), position.checkWin());
+                toMove = (toMove == Seed.CROSS) ? Seed.NOUGHT : Seed.CROSS;
+            }
+            while (board.getMoveCount() > 0) {
+                position.undoMove(board.undoMove());
+                assertScoresMatch(board, position);
+            }
+        }
+    }
+
+    private static void assertScoresMatch(Board board, Position position) {
+        assertEquals(scan(board, Seed.CROSS), position.evaluate(Seed.CROSS));
+        assertEquals(scan(board, Seed.NOUGHT), position.evaluate(Seed.NOUGHT));
+    }
+
+    /** The original evaluation: every window of the board scored one by one. */
+    private static int scan(Board board, Seed player) {
+        int score = 0;
+        int length = board.getGeometry().getWinLength();
+        int[][] directions = {{0, 1}, {1, 0}, {1, 1}, {-1, 1}};
+        for (int row = 0; row < board.getRows(); row++) {
+            for (int col = 0; col < board.getCols(); col++) {
+                for (int[] d : directions) {
+                    int endRow = row + (length - 1) * d[0];
+                    int endCol = col + (length - 1) * d[1];
+                    if (endRow < 0 || endRow >= board.getRows() || endCol >= board.getCols()) {
+                        continue;
+                    }
+                    int own = 0;
+                    int other = 0;
+                    for (int i = 0; i < length; i++) {
+                        Seed content = board.getCell(row + i * d[0], col + i * d[1]).getContent();
+                        if (content == player) own++;
+                        else if (content != Seed.NO_SEED) other++;
+                    }
+                    if (own == length) score += 100;
+                    else if (other == length) score -= 100;
+                    else if (own == 0 || other == 0) score += own * own * own;
+                }
+            }
+        }
+        return score;
+    }
+}
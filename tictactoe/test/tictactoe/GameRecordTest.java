@@ -0,0 +1,128 @@
+package tictactoe;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class GameRecordTest {
+    @TempDir
+    Path directory;
+
+    /** A board after {@code moves}, one base-36 digit per column, cross first. */
+    private static Board board(Geometry geometry, String moves) {
+        Board board = new Board(geometry);
+        for (int i = 0; i < moves.length(); i++) {
+            board.makeMove(i % 2 == 0 ? Seed.CROSS : Seed.NOUGHT, Character.digit(moves.charAt(i), 36));
+        }
+        return board;
+    }
+
+    @Test
+    void gamesOfOneNonStandardGeometryShareASegment() throws IOException, InterruptedException {
+        GameRecordWriter writer = new GameRecordWriter(directory);
+        writer.append(board(Geometry.of(8, 8, 4), "0123"), State.PLAYING);
+        writer.append(board(Geometry.of(8, 8, 4), "7654"), State.PLAYING);
+        writer.close();
+
+        assertEquals(1, GameRecordWriter.listSegments(directory).size());
+        GameRecordReader reader = GameRecordReader.open(directory);
+        assertEquals(2, reader.size());
+        assertSame(Geometry.of(8, 8, 4), reader.get(1).getGeometry());
+    }
+
+    @Test
+    void oddMoveCountRoundTrips() throws IOException, InterruptedException {
+        Board board = board(Geometry.STANDARD, "3324156");
+        GameRecordWriter writer = new GameRecordWriter(directory);
+        writer.append(board, State.CROSS_WON);
+        writer.close();
+
+        GameRecordReader.GameRecord record = GameRecordReader.open(directory).get(0);
+        assertEquals(7, record.getMoveCount());
+        assertEquals(State.CROSS_WON, record.getResult());
+        assertMoves(board, record);
+        assertEquals(GameServer.render(board), GameServer.render(record.replay()));
+    }
+
+    @Test
+    void truncatedTrailingGameIsSkipped() throws IOException, InterruptedException {
+        GameRecordWriter writer = new GameRecordWriter(directory);
+        writer.append(board(Geometry.STANDARD, "33"), State.PLAYING);
+        writer.append(board(Geometry.STANDARD, "012345"), State.DRAW);
+        writer.close();
+        Path segment = GameRecordWriter.listSegments(directory).get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 1);
+        }
+
+        GameRecordReader reader = GameRecordReader.open(directory);
+        assertEquals(1, reader.size());
+        assertMoves(board(Geometry.STANDARD, "33"), reader.get(0));
+    }
+
+    @Test
+    void fullSegmentRollsOverAndKeepsTheOrder() throws IOException, InterruptedException {
+        String[] games = {"3", "33", "332", "3324", "33241", "332415"};
+        GameRecordWriter writer = new GameRecordWriter(directory, GameRecordWriter.HEADER_SIZE + 8);
+        for (String moves : games) {
+            writer.append(board(Geometry.STANDARD, moves), State.PLAYING);
+        }
+        writer.close();
+
+        List<Path> segments = GameRecordWriter.listSegments(directory);
+        assertTrue(segments.size() > 1, segments.toString());
+        GameRecordReader reader = GameRecordReader.open(directory);
+        assertEquals(games.length, reader.size());
+        for (int i = 0; i < games.length; i++) {
+            assertMoves(board(Geometry.STANDARD, games[i]), reader.get(i));
+        }
+
+        // A new writer appends to the last segment only while it has room.
+        GameRecordWriter next = new GameRecordWriter(directory, GameRecordWriter.HEADER_SIZE + 8);
+        next.append(board(Geometry.STANDARD, "6"), State.PLAYING);
+        next.close();
+        assertEquals(games.length + 1, GameRecordReader.open(directory).size());
+        assertMoves(board(Geometry.STANDARD, "6"), GameRecordReader.open(directory).get(games.length));
+    }
+
+    @Test
+    void statsTotalsMatchASequentialCount() throws IOException, InterruptedException {
+        GameRecordWriter writer = new GameRecordWriter(directory);
+        String[] games = {"", "3", "33", "012345", "0011223", "66"};
+        State[] results = {State.DRAW, State.PLAYING, State.CROSS_WON, State.NOUGHT_WON, State.CROSS_WON, State.DRAW};
+        for (int i = 0; i < games.length; i++) {
+            writer.append(board(Geometry.STANDARD, games[i]), results[i]);
+        }
+        writer.close();
+        GameRecordReader reader = GameRecordReader.open(directory);
+
+        Map<State, Long> totals = reader.stream().parallel()
+                .collect(Collectors.groupingByConcurrent(GameRecordReader.GameRecord::getResult, Collectors.counting()));
+        Map<Integer, Map<State, Long>> byFirstColumn = reader.stream().parallel()
+                .filter(record -> record.getMoveCount() > 0)
+                .collect(Collectors.groupingBy(record -> record.getMove(0),
+                        Collectors.groupingBy(GameRecordReader.GameRecord::getResult, Collectors.counting())));
+        GameRecordStats.checkTotals(reader, totals, byFirstColumn);
+
+        totals.merge(State.DRAW, 1L, Long::sum);
+        assertThrows(IllegalStateException.class, () -> GameRecordStats.checkTotals(reader, totals, byFirstColumn));
+    }
+
+    private static void assertMoves(Board expected, GameRecordReader.GameRecord record) {
+        assertEquals(expected.getMoveCount(), record.getMoveCount());
+        for (int i = 0; i < expected.getMoveCount(); i++) {
+            assertEquals(expected.getMove(i), record.getMove(i));
+        }
+    }
+}
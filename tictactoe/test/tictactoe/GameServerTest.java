@@ -0,0 +1,56 @@
+package tictactoe;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class GameServerTest {
+    @Test
+    void malformedCommandsGetAnErrorAndKeepTheConnection() throws IOException {
+        GameServer gameServer = new GameServer(Geometry.STANDARD, 1, 20);
+        try (ServerSocket server = new ServerSocket(0, 16, InetAddress.getLoopbackAddress())) {
+            Thread acceptor = new Thread(() -> {
+                try {
+                    gameServer.serve(server);
+                } catch (IOException e) {
+                    // closed at the end of the test
+                }
+            });
+            acceptor.setDaemon(true);
+            acceptor.start();
+
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getLocalPort());
+                    BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                    PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.US_ASCII)) {
+                assertEquals("HELLO 6 7 4", in.readLine());
+                String[][] exchanges = {
+                    {"", "ERR unknown command"},
+                    {"JUMP 3", "ERR unknown command"},
+                    {"MOVE", "ERR usage: MOVE <col>"},
+                    {"MOVE three", "ERR usage: MOVE <col>"},
+                    {"MOVE 99999999999", "ERR usage: MOVE <col>"},
+                    {"MOVE -1", "ERR illegal move"},
+                    {"MOVE 7", "ERR illegal move"},
+                    {"BOARD", "OK ......./......./......./......./......./......."},
+                };
+                for (String[] exchange : exchanges) {
+                    out.println(exchange[0]);
+                    assertEquals(exchange[1], in.readLine(), exchange[0]);
+                }
+                out.println("MOVE 3");
+                assertTrue(in.readLine().matches("OK [0-6] PLAYING"));
+                out.println("QUIT");
+                assertEquals("BYE", in.readLine());
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package tictactoe;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class GeometryTest {
+    @Test
+    void equalShapesShareOneInstance() {
+        assertSame(Geometry.STANDARD, Geometry.of(6, 7, 4));
+        assertSame(Geometry.of(8, 8, 4), Geometry.of(8, 8, 4));
+        assertNotSame(Geometry.of(8, 8, 4), Geometry.of(8, 8, 5));
+    }
+
+    @Test
+    void playersAcceptPositionsOfAnEqualNonStandardGeometry() {
+        Position position = new Position(Geometry.of(8, 8, 4));
+        position.makeMove(Seed.CROSS, 3);
+
+        AIPlayer minimax = new AIPlayer(Seed.NOUGHT, Geometry.of(8, 8, 4), new TranspositionTable(1 << 12,
+                TranspositionTable.ReplacementPolicy.DEPTH_PREFERRED));
+        minimax.setMaxDepth(2);
+        int col = minimax.getBestMove(position);
+        assertTrue(position.canPlay(col));
+
+        MctsPlayer mcts = new MctsPlayer(Seed.NOUGHT, Geometry.of(8, 8, 4), 1 << 12);
+        mcts.setThreads(1);
+        mcts.setPlayoutBudget(200);
+        assertTrue(position.canPlay(mcts.getBestMove(position)));
+    }
+
+    @Test
+    void rejectsUnsupportedShapes() {
+        assertThrows(IllegalArgumentException.class, () -> Geometry.of(6, Geometry.MAX_COLS + 1, 4));
+        assertThrows(IllegalArgumentException.class, () -> Geometry.of(6, 7, 8));
+    }
+}
@@ -0,0 +1,49 @@
+package tictactoe;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+class MctsPlayerTest {
+    private static MctsPlayer newPlayer(Seed seed, int threads) {
+        MctsPlayer player = new MctsPlayer(seed, Geometry.STANDARD, 1 << 16);
+        player.setThreads(threads);
+        player.setTimeBudget(0);
+        player.setPlayoutBudget(20_000);
+        return player;
+    }
+
+    @Test
+    void takesAnImmediateWin() {
+        // Cross has three in column 0 and nought threatens nothing.
+        assertEquals(0, newPlayer(Seed.CROSS, 1).getBestMove(Positions.of("060605")));
+    }
+
+    @Test
+    void blocksAWinInOne() {
+        // Cross threatens to complete column 0.
+        assertEquals(0, newPlayer(Seed.NOUGHT, 1).getBestMove(Positions.of("06060")));
+    }
+
+    @Test
+    void threadsAgreeWithOneThreadAndLoseNoVisits() {
+        // Cross threatens the bottom row, column 6 and column 0.
+        for (String moves : new String[] {"06162", "65646", "06060"}) {
+            Position position = Positions.of(moves);
+            int expected = newPlayer(Seed.NOUGHT, 1).getBestMove(position);
+
+            MctsPlayer parallel = newPlayer(Seed.NOUGHT, 4);
+            assertEquals(expected, parallel.getBestMove(position), moves);
+            // Every playout passes through exactly one root move, whichever thread ran it.
+            assertEquals(parallel.getLastSearchStats().getNodes(), Arrays.stream(parallel.getRootVisits()).sum());
+        }
+    }
+
+    @Test
+    void rejectsAPositionOfAnotherGeometry() {
+        MctsPlayer player = new MctsPlayer(Seed.CROSS, Geometry.of(7, 7, 4), 1 << 12);
+        assertThrows(IllegalArgumentException.class, () -> player.getBestMove(Positions.of("3")));
+    }
+}
@@ -0,0 +1,89 @@
+package tictactoe;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class MirrorSymmetryTest {
+    private static final int DEPTH = 6;
+
+    @Test
+    void mirrorImagesShareCanonicalHash() {
+        Random random = new Random(11);
+        for (int i = 0; i < 100; i++) {
+            String moves = Positions.randomMoves(Geometry.STANDARD, 1 + random.nextInt(20), random);
+            Position position = Positions.of(moves);
+            Position mirror = Positions.of(Positions.mirror(moves));
+            assertEquals(position.getCanonicalHash(), mirror.getCanonicalHash(), moves);
+            if (position.isSymmetric()) {
+                assertEquals(position.getHash(), mirror.getHash(), moves);
+            } else {
+                assertTrue(position.isMirrored() != mirror.isMirrored(), moves);
+            }
+        }
+    }
+
+    @Test
+    void mirroredPositionGetsMirroredScores() {
+        Random random = new Random(5);
+        for (int i = 0; i < 20; i++) {
+            String moves = Positions.randomMoves(Geometry.STANDARD, random.nextInt(12), random);
+            int[] scores = columnScores(Positions.of(moves));
+            int[] mirrored = columnScores(Positions.of(Positions.mirror(moves)));
+            int cols = scores.length;
+            for (int col = 0; col < cols; col++) {
+                assertEquals(scores[col], mirrored[cols - 1 - col], moves + ", column " + col);
+            }
+        }
+    }
+
+    @Test
+    void mirroredPositionGetsMirroredMove() {
+        Random random = new Random(9);
+        for (int i = 0; i < 20; i++) {
+            String moves = Positions.randomMoves(Geometry.STANDARD, random.nextInt(12), random);
+            Position position = Positions.of(moves);
+            int[] scores = columnScores(position);
+            AIPlayer player = Positions.newPlayer(Positions.sideToMove(moves), DEPTH);
+            int col = player.getBestMove(Positions.of(Positions.mirror(moves)));
+            int best = Integer.MIN_VALUE;
+            for (int score : scores) {
+                best = Math.max(best, score);
+            }
+            // Ties go to the leftmost column, so the mirrored move may be another of equal score.
+            assertEquals(best, scores[position.mirrorColumn(col)], moves);
+            assertEquals(best, player.getLastScore(), moves);
+        }
+    }
+
+    @Test
+    void symmetricAnalysisReportsEveryColumnOnce() {
+        AIPlayer player = Positions.newPlayer(Seed.CROSS, DEPTH);
+        int[] reported = new int[Geometry.STANDARD.getCols()];
+        player.analyze(Positions.of(""), (col, score, depth) -> {
+            if (depth == 0) {
+                reported[col]++;
+            }
+            return depth < 1;
+        });
+        // Each column is reported once; the right half by mirroring the left.
+        assertArrayEquals(new int[] {1, 1, 1, 1, 1, 1, 1}, reported);
+    }
+
+    /** Score of every legal column at {@link #DEPTH}; illegal columns keep MIN_VALUE. */
+    private static int[] columnScores(Position position) {
+        int[] scores = new int[position.getGeometry().getCols()];
+        Arrays.fill(scores, Integer.MIN_VALUE);
+        Positions.newPlayer(Positions.sideToMove(position), DEPTH).analyze(position, (col, score, depth) -> {
+            if (depth == DEPTH) {
+                scores[col] = score;
+            }
+            return depth <= DEPTH;
+        });
+        return scores;
+    }
+}
@@ -0,0 +1,60 @@
+package tictactoe;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class OpeningBookTest {
+    private static final int PLIES = 3;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void generatedBookReadsBackThroughTheMappedFile() throws IOException {
+        Map<Long, long[]> entries = OpeningBookGenerator.generate(PLIES, 4);
+        Path file = directory.resolve(OpeningBook.DEFAULT_FILE);
+        OpeningBookGenerator.write(file, entries);
+        OpeningBook book = OpeningBook.open(file);
+
+        List<String> openings = new ArrayList<>();
+        collect("", openings);
+        assertEquals(entries.size(), book.size());
+        assertEquals(openings.size(), book.size());
+        for (String moves : openings) {
+            Position position = Positions.of(moves);
+            long[] entry = entries.get(position.getKey());
+            assertEquals(entry[0], book.lookup(position), moves);
+            assertEquals(entry[1], book.lookupScore(position), moves);
+
+            Position mirror = Positions.of(Positions.mirror(moves));
+            if (mirror.getKey() != position.getKey()) { // a symmetric position has one entry and either move
+                assertEquals(position.mirrorColumn(book.lookup(position)), book.lookup(mirror), moves);
+            }
+            assertEquals(book.lookupScore(position), book.lookupScore(mirror), moves);
+        }
+        assertEquals(OpeningBook.MISS, book.lookup(Positions.of("3333")));
+    }
+
+    /** Every distinct position of up to {@link #PLIES} moves, as one move list each. */
+    private static void collect(String moves, List<String> openings) {
+        Position position = Positions.of(moves);
+        for (String other : openings) {
+            if (Positions.of(other).getKey() == position.getKey()) {
+                return;
+            }
+        }
+        openings.add(moves);
+        if (moves.length() < PLIES) {
+            for (int col = 0; col < Geometry.STANDARD.getCols(); col++) {
+                collect(moves + col, openings);
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package tictactoe;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class ParallelSearchTest {
+    private static final String[] POSITIONS = {"", "3", "33", "3342", "332211", "3243546", "0123456", "33334422"};
+    private static final int DEPTH = 7;
+
+    @Test
+    void parallelRootSearchMatchesSingleThreaded() {
+        for (String moves : POSITIONS) {
+            Seed toMove = Positions.sideToMove(moves);
+            AIPlayer single = Positions.newPlayer(toMove, DEPTH);
+            int expected = single.getBestMove(Positions.of(moves));
+            for (int threads : new int[] {2, 4}) {
+                AIPlayer parallel = Positions.newPlayer(toMove, DEPTH);
+                parallel.setThreads(threads);
+                assertEquals(expected, parallel.getBestMove(Positions.of(moves)), moves + ", " + threads + " threads");
+                assertEquals(single.getLastScore(), parallel.getLastScore(), moves + ", " + threads + " threads");
+                assertEquals(DEPTH, parallel.getLastDepth());
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package tictactoe;
+
+import java.util.Random;
+
+/** Builds test positions from move strings such as "3342": one digit per column, cross first. */
+final class Positions {
+    private Positions() {
+    }
+
+    static Position of(String moves) {
+        return of(Geometry.STANDARD, moves);
+    }
+
+    static Position of(Geometry geometry, String moves) {
+        Position position = new Position(geometry);
+        for (int i = 0; i < moves.length(); i++) {
+            position.makeMove(i % 2 == 0 ? Seed.CROSS : Seed.NOUGHT, Character.digit(moves.charAt(i), 36));
+        }
+        return position;
+    }
+
+    static Seed sideToMove(String moves) {
+        return moves.length() % 2 == 0 ? Seed.CROSS : Seed.NOUGHT;
+    }
+
+    static Seed sideToMove(Position position) {
+        return position.getMoveCount() % 2 == 0 ? Seed.CROSS : Seed.NOUGHT;
+    }
+
+    /** Moves of a game still in progress after {@code plies} random moves; games won on the way are replayed. */
+    static String randomMoves(Geometry geometry, int plies, Random random) {
+        while (true) {
+            Position position = new Position(geometry);
+            StringBuilder moves = new StringBuilder();
+            for (int i = 0; i < plies && position.checkWin() == State.PLAYING; i++) {
+                int col;
+                do {
+                    col = random.nextInt(geometry.getCols());
+                } while (!position.canPlay(col));
+                position.makeMove(sideToMove(position), col);
+                moves.append(Character.forDigit(col, 36));
+            }
+            if (position.checkWin() == State.PLAYING) {
+                return moves.toString();
+            }
+        }
+    }
+
+    /** A position after {@code plies} random moves in which nobody has won yet. */
+    static Position randomPosition(Geometry geometry, int plies, Random random) {
+        return of(geometry, randomMoves(geometry, plies, random));
+    }
+
+    /** The moves of the left-right mirror image on the standard board. */
+    static String mirror(String moves) {
+        StringBuilder mirrored = new StringBuilder();
+        for (char move : moves.toCharArray()) {
+            mirrored.append(Geometry.STANDARD.getCols() - 1 - (move - '0'));
+        }
+        return mirrored.toString();
+    }
+
+    /** A minimax player searching to {@code depth} on its own table, without opening book or time limit. */
+    static AIPlayer newPlayer(Seed seed, int depth) {
+        AIPlayer player = new AIPlayer(seed, new TranspositionTable(1 << 18,
+                TranspositionTable.ReplacementPolicy.DEPTH_PREFERRED));
+        player.setOpeningBook(null);
+        player.setTimeBudget(0);
+        player.setMaxDepth(depth);
+        return player;
+    }
+}
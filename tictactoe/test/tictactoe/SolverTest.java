@@ -0,0 +1,122 @@
+package tictactoe;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class SolverTest {
+    @Test
+    void matchesBruteForceOnLatePositions() {
+        checkRandomPositions(Geometry.STANDARD, 26, 30);
+    }
+
+    @Test
+    void matchesBruteForceOnSmallBoard() {
+        checkRandomPositions(Geometry.of(5, 6, 4), 14, 30);
+    }
+
+    @Test
+    void solverModeAIPlaysAMoveThatKeepsTheValue() {
+        Random random = new Random(3);
+        for (int i = 0; i < 10; i++) {
+            Position position = Positions.randomPosition(Geometry.STANDARD, 28, random);
+            Seed toMove = Positions.sideToMove(position);
+            AIPlayer player = new AIPlayer(toMove);
+            player.setOpeningBook(null);
+            player.setSolverMode(true);
+            player.setSolverTableSize(1 << 16);
+            player.setTimeBudget(0);
+            int value = bruteForce(position);
+            int col = player.getBestMove(position);
+            assertTrue(player.isLastMoveSolved());
+            assertEquals(value, player.getLastSolvedScore());
+            assertEquals(value, valueOfMove(position, col));
+        }
+    }
+
+    @Test
+    void solverModeLeavesTheOpeningToTheHeuristicSearch() {
+        Position position = Positions.of("3323");
+        long[] nodes = new long[2];
+        for (int i = 0; i < 2; i++) {
+            AIPlayer player = new AIPlayer(Seed.CROSS);
+            player.setOpeningBook(null);
+            player.setSolverMode(i == 1);
+            player.setSolverTableSize(1 << 16);
+            player.setTimeBudget(0);
+            player.setMaxDepth(6);
+            player.getBestMove(position);
+            assertFalse(player.isLastMoveSolved());
+            nodes[i] = player.getNodeCount();
+        }
+        assertEquals(nodes[0], nodes[1]);
+    }
+
+    private static void checkRandomPositions(Geometry geometry, int plies, int count) {
+        Random random = new Random(7);
+        Solver solver = new Solver(geometry, new TranspositionTable(1 << 16,
+                TranspositionTable.ReplacementPolicy.ALWAYS));
+        for (int i = 0; i < count; i++) {
+            Position position = Positions.randomPosition(geometry, plies, random);
+            int value = bruteForce(position);
+            assertEquals(value, solver.solve(position));
+            long best = solver.bestMove(position);
+            assertEquals(value, Solver.scoreOf(best));
+            assertEquals(value, valueOfMove(position, Solver.columnOf(best)));
+        }
+    }
+
+    /** Score of playing {@code col}, for the side to move, in the solver's units. */
+    private static int valueOfMove(Position position, int col) {
+        int size = position.getGeometry().getSize();
+        int moves = position.getMoveCount();
+        position.makeMove(Positions.sideToMove(position), col);
+        State state = position.checkWin();
+        int value = state == State.PLAYING ? -bruteForce(position)
+                : state == State.DRAW ? 0 : (size + 1 - moves) / 2;
+        position.undoMove(col);
+        return value;
+    }
+
+    /** Exact score by plain alpha-beta: no table, no move ordering, no pruning of losing moves. */
+    private static int bruteForce(Position position) {
+        return bruteForce(position, -Integer.MAX_VALUE, Integer.MAX_VALUE);
+    }
+
+    private static int bruteForce(Position position, int alpha, int beta) {
+        int size = position.getGeometry().getSize();
+        int moves = position.getMoveCount();
+        if (moves == size) {
+            return 0;
+        }
+        int cols = position.getGeometry().getCols();
+        Seed player = Positions.sideToMove(position);
+        for (int col = 0; col < cols; col++) {
+            if (position.canPlay(col)) {
+                position.makeMove(player, col);
+                boolean won = position.checkWin() == State.CROSS_WON || position.checkWin() == State.NOUGHT_WON;
+                position.undoMove(col);
+                if (won) {
+                    return (size + 1 - moves) / 2;
+                }
+            }
+        }
+        int best = -Integer.MAX_VALUE;
+        for (int col = 0; col < cols; col++) {
+            if (!position.canPlay(col)) {
+                continue;
+            }
+            position.makeMove(player, col);
+            int score = -bruteForce(position, -beta, -Math.max(alpha, best));
+            position.undoMove(col);
+            best = Math.max(best, score);
+            if (best >= beta) {
+                break;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,86 @@
+package tictactoe;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class TranspositionTableTest {
+    private static final int SIZE = 1 << 4;
+
+    private static TranspositionTable newTable(TranspositionTable.ReplacementPolicy policy) {
+        return new TranspositionTable(SIZE, policy);
+    }
+
+    @Test
+    void storedFieldsReadBack() {
+        TranspositionTable table = newTable(TranspositionTable.ReplacementPolicy.ALWAYS);
+        table.store(42, 17, TranspositionTable.UPPER, -1000, 6);
+        long entry = table.probe(42);
+        assertEquals(17, TranspositionTable.depthOf(entry));
+        assertEquals(TranspositionTable.UPPER, TranspositionTable.boundOf(entry));
+        assertEquals(-1000, TranspositionTable.scoreOf(entry));
+        assertEquals(6, TranspositionTable.moveOf(entry));
+    }
+
+    @Test
+    void otherKeyInSameSlotMisses() {
+        TranspositionTable table = newTable(TranspositionTable.ReplacementPolicy.ALWAYS);
+        table.store(3, 1, TranspositionTable.EXACT, 5, 0);
+        assertEquals(TranspositionTable.MISS, table.probe(3 + SIZE));
+        assertEquals(TranspositionTable.MISS, table.probe(4));
+        assertEquals(5, TranspositionTable.scoreOf(table.probe(3)));
+        assertEquals(1, table.getHits());
+        assertEquals(3, table.getProbes());
+    }
+
+    @Test
+    void depthPreferredKeepsDeeperEntryOfCurrentSearch() {
+        TranspositionTable table = newTable(TranspositionTable.ReplacementPolicy.DEPTH_PREFERRED);
+        table.newSearch();
+        table.store(1, 8, TranspositionTable.EXACT, 10, 2);
+        table.store(1 + SIZE, 3, TranspositionTable.EXACT, 20, 3);
+        assertEquals(10, TranspositionTable.scoreOf(table.probe(1)));
+        assertEquals(TranspositionTable.MISS, table.probe(1 + SIZE));
+
+        // The same position is always updated, even with a shallower result.
+        table.store(1, 2, TranspositionTable.LOWER, 30, 4);
+        assertEquals(30, TranspositionTable.scoreOf(table.probe(1)));
+        assertEquals(2, TranspositionTable.depthOf(table.probe(1)));
+
+        // Entries from an older search give way.
+        table.store(1, 8, TranspositionTable.EXACT, 10, 2);
+        table.newSearch();
+        table.store(1 + SIZE, 3, TranspositionTable.EXACT, 20, 3);
+        assertEquals(20, TranspositionTable.scoreOf(table.probe(1 + SIZE)));
+        assertEquals(TranspositionTable.MISS, table.probe(1));
+    }
+
+    @Test
+    void alwaysPolicyReplacesDeeperEntry() {
+        TranspositionTable table = newTable(TranspositionTable.ReplacementPolicy.ALWAYS);
+        table.store(1, 8, TranspositionTable.EXACT, 10, 2);
+        table.store(1 + SIZE, 3, TranspositionTable.EXACT, 20, 3);
+        assertEquals(TranspositionTable.MISS, table.probe(1));
+        assertEquals(20, TranspositionTable.scoreOf(table.probe(1 + SIZE)));
+    }
+
+    @Test
+    void clearEmptiesTableAndCounters() {
+        TranspositionTable table = newTable(TranspositionTable.ReplacementPolicy.DEPTH_PREFERRED);
+        for (long key = 0; key < SIZE; key++) {
+            table.store(key, 1, TranspositionTable.EXACT, (int) key, 0);
+        }
+        table.clear();
+        assertEquals(0, table.getProbes());
+        for (long key = 0; key < SIZE; key++) {
+            assertEquals(TranspositionTable.MISS, table.probe(key));
+        }
+    }
+
+    @Test
+    void sizeMustBePowerOfTwo() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new TranspositionTable(3, TranspositionTable.ReplacementPolicy.ALWAYS));
+    }
+}